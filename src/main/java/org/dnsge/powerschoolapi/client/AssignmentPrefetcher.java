@@ -0,0 +1,153 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Daniel Sage
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.dnsge.powerschoolapi.client;
+
+import org.dnsge.powerschoolapi.detail.Course;
+import org.dnsge.powerschoolapi.detail.GradeGroup;
+import org.dnsge.powerschoolapi.detail.LazyCourseList;
+import org.dnsge.powerschoolapi.user.User;
+import org.dnsge.powerschoolapi.util.FairShareExecutor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs the prefetches of a {@link PrefetchPolicy} for a single client
+ *
+ * @author Daniel Sage
+ * @version 1.0
+ */
+final class AssignmentPrefetcher {
+
+    private static final Logger LOGGER = Logger.getLogger(AssignmentPrefetcher.class.getName());
+
+    private final PrefetchPolicy policy;
+    private final ThreadPoolExecutor pool;
+    private final FairShareExecutor<String> scheduler;
+
+    AssignmentPrefetcher(PrefetchPolicy policy) {
+        this.policy = policy;
+        this.pool = new ThreadPoolExecutor(policy.getThreads(), policy.getThreads(), 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new PrefetchThreadFactory());
+        this.pool.allowCoreThreadTimeOut(true);
+        this.scheduler = new FairShareExecutor<>(pool, policy.getThreads(), policy.getPerUserLimit());
+    }
+
+    /**
+     * Selects and queues the prefetches of a user in the background
+     *
+     * @param user User to prefetch for
+     */
+    void start(User user) {
+        scheduler.submit(user.getUsername(), () -> {
+            schedule(user);
+            return null;
+        });
+    }
+
+    private void schedule(User user) {
+        String key = user.getUsername();
+        Executor executor = task -> scheduler.submit(key, () -> {
+            task.run();
+            return null;
+        });
+        List<Course> courses = user.getCourses();
+        if (courses instanceof LazyCourseList) {
+            // Don't parse every row just to prefetch; rows read later are prefetched as they are parsed
+            LazyCourseList lazy = (LazyCourseList) courses;
+            lazy.onParse(course -> scheduler.submit(key, () -> {
+                prefetch(course, executor);
+                return null;
+            }));
+            courses = lazy.getParsedCourses();
+        }
+        for (Course course : courses) {
+            prefetch(course, executor);
+        }
+    }
+
+    private void prefetch(Course course, Executor executor) {
+        for (GradeGroup gg : policy.select(course, LocalDate.now())) {
+            try {
+                course.prefetchAssignments(gg, executor);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Could not prefetch assignments", e);
+            }
+        }
+    }
+
+    /**
+     * Cancels the prefetches of a user that haven't been used yet
+     *
+     * @param user User to cancel for
+     */
+    void cancel(User user) {
+        List<Course> courses = user.getCourses();
+        if (courses instanceof LazyCourseList) { // Unparsed courses have nothing to cancel
+            LazyCourseList lazy = (LazyCourseList) courses;
+            lazy.onParse(null);
+            courses = lazy.getParsedCourses();
+        }
+        courses.forEach(Course::cancelPrefetches);
+    }
+
+    /**
+     * Stops the prefetch threads after the queued prefetches finish
+     */
+    void shutdown() {
+        scheduler.shutdown().whenComplete((done, error) -> pool.shutdown());
+    }
+
+    /**
+     * @return Policy being run
+     */
+    PrefetchPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Creates named, low priority daemon threads for prefetching
+     */
+    private static final class PrefetchThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "powerschool-prefetch-" + count.incrementAndGet());
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        }
+    }
+
+}
@@ -0,0 +1,150 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Daniel Sage
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.dnsge.powerschoolapi.client;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Thread-confined engine that performs the hashing needed for legacy Powerschool logins
+ * <p>
+ * Each thread gets its own engine through {@link #current()}, so the {@code Mac} and {@code MessageDigest} instances
+ * and the scratch buffers are created once per thread instead of once per call.
+ * <p>
+ * Text is encoded with the platform default charset, exactly like the original {@code String.getBytes()} calls, so
+ * the login fields stay the same on every JVM the client already worked on. Powerschool expects UTF-8, which is the
+ * default from Java 18 on; older JVMs with another default should run with {@code -Dfile.encoding=UTF-8} for
+ * passwords outside ASCII.
+ *
+ * @author Daniel Sage
+ * @version 1.0
+ * @see PowerschoolAuth
+ */
+final class CredentialHasher {
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    private static final Base64.Encoder BASE64 = Base64.getEncoder().withoutPadding();
+    /** Encoding of the original implementation's {@code String.getBytes()} */
+    private static final Charset TEXT = Charset.defaultCharset();
+    private static final ThreadLocal<CredentialHasher> CURRENT = ThreadLocal.withInitial(CredentialHasher::new);
+
+    private final Mac hmacMd5;
+    private final MessageDigest md5;
+    /** Scratch buffer for hex output, sized for an MD5 digest */
+    private final char[] hexBuffer = new char[32];
+    /** Scratch buffer for the unpadded Base64 of an MD5 digest */
+    private final byte[] base64Buffer = new byte[22];
+
+    private CredentialHasher() {
+        try {
+            hmacMd5 = Mac.getInstance("HmacMD5");
+            md5 = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is not available", e);
+        }
+    }
+
+    /**
+     * @return The engine confined to the calling thread
+     */
+    static CredentialHasher current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Calculates a lowercase hex HMAC-MD5 of data with a key
+     *
+     * @param data Data to hash
+     * @param key  Key to use
+     * @return Hex encoded HMAC
+     * @throws InvalidKeyException if the key is rejected
+     */
+    String hmacMd5Hex(String data, String key) throws InvalidKeyException {
+        return hmacMd5Hex(data.getBytes(TEXT), key);
+    }
+
+    /**
+     * Calculates a lowercase hex HMAC-MD5 of raw data with a key
+     *
+     * @param data Data to hash
+     * @param key  Key to use
+     * @return Hex encoded HMAC
+     * @throws InvalidKeyException if the key is rejected
+     */
+    private String hmacMd5Hex(byte[] data, String key) throws InvalidKeyException {
+        hmacMd5.init(new SecretKeySpec(key.getBytes(TEXT), "HmacMD5"));
+        return toHex(hmacMd5.doFinal(data));
+    }
+
+    /**
+     * Calculates the unpadded {@code Base64(MD5(password))} digest used by the {@code pw} field
+     *
+     * @param password Password to digest
+     * @return Digest as a String
+     */
+    String passwordDigest(String password) {
+        byte[] hashed = md5.digest(password.getBytes(TEXT));
+        int length = BASE64.encode(hashed, base64Buffer);
+        return new String(base64Buffer, 0, length, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Calculates the HMAC-MD5 of an unpadded {@code Base64(MD5(password))} digest with a key
+     *
+     * @param password Password to digest
+     * @param key      Key to use
+     * @return Hex encoded HMAC
+     * @throws InvalidKeyException if the key is rejected
+     */
+    String hmacMd5OfPasswordDigest(String password, String key) throws InvalidKeyException {
+        byte[] hashed = md5.digest(password.getBytes(TEXT));
+        int length = BASE64.encode(hashed, base64Buffer);
+        hmacMd5.init(new SecretKeySpec(key.getBytes(TEXT), "HmacMD5"));
+        hmacMd5.update(base64Buffer, 0, length);
+        return toHex(hmacMd5.doFinal());
+    }
+
+    /**
+     * Encodes bytes as lowercase hex using a lookup table
+     *
+     * @param bytes Bytes to encode
+     * @return Hex String
+     */
+    String toHex(byte[] bytes) {
+        char[] out = bytes.length * 2 <= hexBuffer.length ? hexBuffer : new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            out[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0xF];
+            out[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0xF];
+        }
+        return new String(out, 0, bytes.length * 2);
+    }
+
+}
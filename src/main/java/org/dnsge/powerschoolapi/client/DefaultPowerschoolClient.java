@@ -24,15 +24,24 @@
 
 package org.dnsge.powerschoolapi.client;
 
+import org.dnsge.powerschoolapi.detail.SectionCatalog;
+import org.dnsge.powerschoolapi.metrics.Counter;
+import org.dnsge.powerschoolapi.metrics.Latency;
+import org.dnsge.powerschoolapi.metrics.PowerschoolMetrics;
+import org.dnsge.powerschoolapi.metrics.jfr.ClientOperationEvent;
+import org.dnsge.powerschoolapi.metrics.jfr.HttpRequestEvent;
 import org.dnsge.powerschoolapi.user.User;
 import org.dnsge.powerschoolapi.user.UserConfig;
+import org.jsoup.Connection;
 import org.jsoup.Connection.Method;
 import org.jsoup.Connection.Response;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.select.Elements;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.time.Instant;
 import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -48,10 +57,17 @@ public final class DefaultPowerschoolClient implements PowerschoolClient {
     private static final Logger LOGGER = Logger.getLogger(DefaultPowerschoolClient.class.getName());
     /** Version string to be used in the default UserAgent */
     private static final String VERSION = "1.1.0";
+    /** UserAgent used when none is given */
+    static final String DEFAULT_USER_AGENT = "powerschoolapi/" + VERSION;
 
     private final String psInstallURL;
     private final String userAgent;
     private ClientStorage storage;
+    private final LoginFailureCache loginFailureCache;
+    private final SectionCatalog sectionCatalog;
+    private volatile PowerschoolMetrics metrics = PowerschoolMetrics.noop();
+    private volatile boolean lazyParsing;
+    private volatile AssignmentPrefetcher prefetcher;
 
     /**
      * Constructor for new PowerschoolClient with a default UserAgent in the format of
@@ -60,7 +76,7 @@ public final class DefaultPowerschoolClient implements PowerschoolClient {
      * @param psInstallURL Install URL of the Powerschool server
      */
     public DefaultPowerschoolClient(String psInstallURL) {
-        this(psInstallURL, "powerschoolapi/" + VERSION);
+        this(psInstallURL, DEFAULT_USER_AGENT);
     }
 
     /**
@@ -70,9 +86,24 @@ public final class DefaultPowerschoolClient implements PowerschoolClient {
      * @param userAgent UserAgent to use in requests
      */
     public DefaultPowerschoolClient(String psInstallURL, String userAgent) {
+        this(psInstallURL, userAgent, new SectionCatalog());
+    }
+
+    /**
+     * Constructor for new PowerschoolClient with a UserAgent that records sections in a catalog shared with other
+     * clients
+     *
+     * @param psInstallURL   Install URL of the Powerschool server
+     * @param userAgent      UserAgent to use in requests
+     * @param sectionCatalog Catalog to record sections in
+     * @see PowerschoolClientRegistry
+     */
+    public DefaultPowerschoolClient(String psInstallURL, String userAgent, SectionCatalog sectionCatalog) {
         this.userAgent = userAgent;
         this.psInstallURL = fixUrl(psInstallURL);
         this.storage = new ClientStorage();
+        this.loginFailureCache = new LoginFailureCache();
+        this.sectionCatalog = sectionCatalog;
     }
 
     /**
@@ -82,7 +113,7 @@ public final class DefaultPowerschoolClient implements PowerschoolClient {
      * @return Fixed URL
      * @throws RuntimeException if HTTPS Schema is missing
      */
-    private String fixUrl(String initialURL) {
+    static String fixUrl(String initialURL) {
         // Make sure the URL is https and ends with a '/'
         String returnString = initialURL.toLowerCase();
 
@@ -104,21 +135,81 @@ public final class DefaultPowerschoolClient implements PowerschoolClient {
         return psInstallURL + (extension.charAt(0) == '/' ? extension.substring(1) : extension);
     }
 
+    /**
+     * Executes a request, recording its latency and the size of its response
+     *
+     * @param latency    Endpoint being requested
+     * @param connection Connection to execute
+     * @return {@code Response} object
+     * @throws IOException if something goes wrong
+     */
+    private Response execute(Latency latency, Connection connection) throws IOException {
+        PowerschoolMetrics metrics = this.metrics;
+        HttpRequestEvent event = new HttpRequestEvent();
+        event.begin();
+        long start = System.nanoTime();
+        metrics.increment(Counter.REQUESTS);
+        try {
+            Response response = connection.execute();
+            int bytes = response.bodyAsBytes().length;
+            metrics.add(Counter.BYTES_RECEIVED, bytes);
+            event.finish(psInstallURL, latency.name(), bytes, true);
+            return response;
+        } catch (IOException e) {
+            metrics.increment(Counter.REQUEST_FAILURES);
+            event.finish(psInstallURL, latency.name(), 0, false);
+            throw e;
+        } finally {
+            metrics.recordSince(latency, start);
+        }
+    }
+
+    /**
+     * Fails fast if the credentials recently failed, counting the lookup
+     *
+     * @param username Username to check
+     * @param password Password to check
+     * @throws PowerschoolLoginException if the credentials are backing off
+     */
+    private void checkLoginAllowed(String username, String password) {
+        try {
+            loginFailureCache.checkAllowed(username, password);
+            metrics.increment(Counter.LOGIN_FAILURE_CACHE_MISSES);
+        } catch (PowerschoolLoginException e) {
+            metrics.increment(Counter.LOGIN_FAILURE_CACHE_HITS);
+            throw e;
+        }
+    }
+
+    /**
+     * Records a login rejected by Powerschool
+     *
+     * @param username Username that failed
+     * @param password Password that failed
+     * @return Exception to throw
+     */
+    private PowerschoolLoginException loginFailed(String username, String password) {
+        loginFailureCache.recordFailure(username, password);
+        metrics.increment(Counter.LOGIN_FAILURES);
+        return new PowerschoolLoginException("Invalid login information");
+    }
+
     /**
      * Perform a POST request to log in
      *
-     * @param username Username
-     * @param password Password
+     * @param username       Username
+     * @param password       Password
+     * @param passwordDigest Precomputed password digest for legacy logins
      * @return {@code Response} object
      * @throws IOException if something goes wrong
      */
-    private Response performLoginPost(String username, String password) throws IOException {
+    private Response performLoginPost(String username, String password, String passwordDigest) throws IOException {
         // Authenticate a user
         // Get login page for the contextData and pstoken if used
-        Document loginPage = Jsoup.connect(urlify("public/home.html"))
+        Document loginPage = execute(Latency.LOGIN_PAGE, Jsoup.connect(urlify("public/home.html"))
                 .userAgent(userAgent)
-                .timeout(2000)
-                .get();
+                .timeout(2000))
+                .parse();
 
         LOGGER.fine("Performing authentication...");
         // Do hashing and other auth
@@ -129,7 +220,7 @@ public final class DefaultPowerschoolClient implements PowerschoolClient {
             // Updated authentication
             LOGGER.fine("Performing login HTTP POST request");
 
-            return Jsoup.connect(urlify("guardian/home.html"))
+            return execute(Latency.LOGIN_POST, Jsoup.connect(urlify("guardian/home.html"))
                     .timeout(2000)
                     .method(Method.POST)
                     .data("account", username)
@@ -139,19 +230,18 @@ public final class DefaultPowerschoolClient implements PowerschoolClient {
                     .data("serviceName", "PS Parent Portal")
                     .data("credentialType", "User Id and Password Credential")
                     .data("pcasServerURL", "/")
-                    .userAgent(userAgent)
-                    .execute();
+                    .userAgent(userAgent));
         } else {
             // Legacy authentication
             LOGGER.fine("Using legacy authentication");
             String contextData = contextDataE.first().val();
             String pstoken = pstokenE.first().val();
             String dbpwField = PowerschoolAuth.getDBPWField(contextData, password);
-            String pwField = PowerschoolAuth.getPWField(contextData, password);
+            String pwField = PowerschoolAuth.getPWFieldFromDigest(contextData, passwordDigest);
             LOGGER.fine("Performing legacy login HTTP POST request");
             // Send login post request
 
-            return Jsoup.connect(urlify("guardian/home.html"))
+            return execute(Latency.LOGIN_POST, Jsoup.connect(urlify("guardian/home.html"))
                     .timeout(2000)
                     .method(Method.POST)
                     .data("pstoken", pstoken)
@@ -163,8 +253,7 @@ public final class DefaultPowerschoolClient implements PowerschoolClient {
                     .data("account", username)
                     .data("pw", pwField)
                     .data("ldappassword", password)
-                    .userAgent(userAgent)
-                    .execute();
+                    .userAgent(userAgent));
         }
     }
 
@@ -172,23 +261,51 @@ public final class DefaultPowerschoolClient implements PowerschoolClient {
      * {@inheritDoc}
      */
     public User authenticate(String username, String password) throws IOException {
-        Response loginPostResp = performLoginPost(username, password);
+        ClientOperationEvent event = new ClientOperationEvent();
+        event.begin();
+        boolean succeeded = false;
+        try {
+            User user = performAuthenticate(username, password);
+            succeeded = true;
+            startPrefetch(user);
+            return user;
+        } finally {
+            event.finish(psInstallURL, "authenticate", succeeded);
+        }
+    }
+
+    /**
+     * Logs in a user and creates a {@code User} from their home page
+     *
+     * @param username Username to login with
+     * @param password Password to login with
+     * @return {@code User} object
+     * @throws IOException if something goes wrong
+     */
+    private User performAuthenticate(String username, String password) throws IOException {
+        checkLoginAllowed(username, password);
+        String passwordDigest = PowerschoolAuth.getPasswordDigest(password);
+        Response loginPostResp = performLoginPost(username, password, passwordDigest);
 
         // Make sure we logged in successfully
         if (!loginPostResp.body().contains("Grades and Attendance")) {
-            throw new PowerschoolLoginException("Invalid login information");
+            throw loginFailed(username, password);
         }
+        loginFailureCache.recordSuccess(username);
+        metrics.increment(Counter.LOGINS);
 
         Map<String, String> mapCookies = loginPostResp.cookies();
         LOGGER.fine("Requesting PowerSchool homepage");
         // Get homepage info
-        Document gradesPage = Jsoup.connect(urlify("guardian/home.html"))
+        Response homeResp = execute(Latency.HOME_GET, Jsoup.connect(urlify("guardian/home.html"))
                 .timeout(2000)
                 .cookies(mapCookies)
-                .userAgent(userAgent)
-                .get();
+                .userAgent(userAgent));
+        Instant receivedAt = Instant.now();
+        long fingerprint = HomePageFingerprint.of(homeResp.bodyAsBytes());
 
-        UserConfig config = new UserConfig(this, username, password, gradesPage, mapCookies);
+        UserConfig config = new UserConfig(this, username, password, passwordDigest, homeResp.parse(), mapCookies,
+                fingerprint, receivedAt);
         storage.register(config);
         return new User(config);
 
@@ -199,39 +316,159 @@ public final class DefaultPowerschoolClient implements PowerschoolClient {
      */
     @Override
     public void refreshUser(User user) throws IOException {
+        refreshUserWithResult(user);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public RefreshResult refreshUserWithResult(User user) throws IOException {
+        ClientOperationEvent event = new ClientOperationEvent();
+        event.begin();
+        boolean succeeded = false;
+        try {
+            RefreshResult result = performRefresh(user);
+            succeeded = true;
+            startPrefetch(user);
+            return result;
+        } finally {
+            event.finish(psInstallURL, "refreshUser", succeeded);
+        }
+    }
+
+    /**
+     * Refreshes a user from their home page, logging in again if their cookies expired
+     * <p>
+     * The home page is only parsed again when the fingerprint of its course table changed.
+     *
+     * @param user User to update
+     * @return {@code RefreshResult} of the refresh
+     * @throws IOException if something goes wrong
+     */
+    private RefreshResult performRefresh(User user) throws IOException {
+        return applyRefresh(user, fetchRefresh(user));
+    }
+
+    /**
+     * Performs the requests of a refresh, logging in again if the user's cookies expired, without parsing anything
+     *
+     * @param user User to refresh
+     * @return The fetched home page
+     * @throws IOException if something goes wrong
+     * @see #applyRefresh(User, FetchedHome)
+     */
+    FetchedHome fetchRefresh(User user) throws IOException {
         String username = user.getConfig().getUsername();
         String password = user.getConfig().getPassword();
-        Map<String, String> oldCookies = user.getConfig().getAuthCookies();
+        String passwordDigest = user.getConfig().getPasswordDigest();
+        if (passwordDigest == null) {
+            passwordDigest = PowerschoolAuth.getPasswordDigest(password);
+        }
+        Map<String, String> cookies = user.getConfig().getAuthCookies();
+        boolean reloggedIn = false;
 
         // Try to access the page using the already used cookies
-        Document gradesPage = Jsoup.connect(urlify("guardian/home.html"))
+        Response homeResp = execute(Latency.HOME_GET, Jsoup.connect(urlify("guardian/home.html"))
                 .timeout(2000)
-                .cookies(oldCookies)
-                .userAgent(userAgent)
-                .get();
+                .cookies(cookies)
+                .userAgent(userAgent));
 
         // The cookies were invalid, login again
-        if (!gradesPage.body().html().contains("Grades and Attendance")) {
-            Response loginPostResp = performLoginPost(username, password);
+        if (!HomePageFingerprint.isLoggedIn(homeResp.bodyAsBytes())) {
+            checkLoginAllowed(username, password);
+            Response loginPostResp = performLoginPost(username, password, passwordDigest);
 
             if (!loginPostResp.body().contains("Grades and Attendance")) {
-                throw new PowerschoolLoginException("Invalid login information");
+                throw loginFailed(username, password);
             }
+            loginFailureCache.recordSuccess(username);
+            metrics.increment(Counter.RELOGINS);
 
-            Map<String, String> mapCookies = loginPostResp.cookies();
-            gradesPage = Jsoup.connect(urlify("guardian/home.html"))
+            cookies = loginPostResp.cookies();
+            reloggedIn = true;
+            homeResp = execute(Latency.HOME_GET, Jsoup.connect(urlify("guardian/home.html"))
                     .timeout(2000)
-                    .cookies(mapCookies)
-                    .userAgent(userAgent)
-                    .get();
+                    .cookies(cookies)
+                    .userAgent(userAgent));
+        }
+
+        Instant receivedAt = Instant.now();
+        return new FetchedHome(homeResp.bodyAsBytes(), homeResp.charset(), homeResp.url().toExternalForm(),
+                passwordDigest, cookies, reloggedIn, receivedAt);
+    }
+
+    /**
+     * Updates a user from a fetched home page. This is the CPU-bound half of a refresh and performs no requests.
+     *
+     * @param user User to update
+     * @param home Home page fetched by {@link #fetchRefresh(User)}
+     * @return {@code RefreshResult} of the refresh
+     * @throws IOException if the home page can't be parsed
+     */
+    RefreshResult applyRefresh(User user, FetchedHome home) throws IOException {
+        String username = user.getConfig().getUsername();
+        String password = user.getConfig().getPassword();
+        String passwordDigest = home.passwordDigest;
+        Map<String, String> cookies = home.cookies;
+        boolean reloggedIn = home.reloggedIn;
+
+        UserConfig oldConfig = user.getConfig();
+        long fingerprint = HomePageFingerprint.of(home.body);
+        if (fingerprint != HomePageFingerprint.NONE && fingerprint == oldConfig.getHomeFingerprint()) {
+            // Nothing to parse, only keep the current cookies
+            LOGGER.fine("Home page unchanged, skipping parse");
+            metrics.increment(Counter.UNCHANGED_REFRESHES);
+            user.updateConfig(new UserConfig(this, username, password, passwordDigest,
+                    oldConfig.getConstructionDocument(), cookies, fingerprint, home.receivedAt));
+            return RefreshResult.of(false, reloggedIn);
+        }
+
+        Document document = Jsoup.parse(new ByteArrayInputStream(home.body), home.charset, home.url);
+        user.update(new UserConfig(this, username, password, passwordDigest, document, cookies, fingerprint,
+                home.receivedAt));
+        return RefreshResult.of(true, reloggedIn);
+    }
 
-            // Update
-            user.update(new UserConfig(this, username, password, gradesPage, mapCookies));
-            return;
+    /**
+     * Finishes a refresh that was split between {@link #fetchRefresh(User)} and {@link #applyRefresh(User,
+     * FetchedHome)}, starting the same follow-up work as {@link #refreshUserWithResult(User)}
+     *
+     * @param user User that was refreshed
+     */
+    void refreshed(User user) {
+        startPrefetch(user);
+    }
+
+    /**
+     * Raw home page fetched by the first half of a refresh
+     */
+    static final class FetchedHome {
+        private final byte[] body;
+        private final String charset;
+        private final String url;
+        private final String passwordDigest;
+        private final Map<String, String> cookies;
+        private final boolean reloggedIn;
+        private final Instant receivedAt;
+
+        private FetchedHome(byte[] body, String charset, String url, String passwordDigest,
+                            Map<String, String> cookies, boolean reloggedIn, Instant receivedAt) {
+            this.body = body;
+            this.charset = charset;
+            this.url = url;
+            this.passwordDigest = passwordDigest;
+            this.cookies = cookies;
+            this.reloggedIn = reloggedIn;
+            this.receivedAt = receivedAt;
         }
 
-        // Otherwise, we can update with the new page
-        user.update(new UserConfig(this, username, password, gradesPage, oldCookies));
+        /**
+         * @return Size of the fetched body in bytes
+         */
+        int size() {
+            return body.length;
+        }
     }
 
     /**
@@ -240,19 +477,123 @@ public final class DefaultPowerschoolClient implements PowerschoolClient {
     public Document getAs(User user, String getUrl) {
         // Get a url as a user
         try {
-            return Jsoup.connect(urlify(getUrl))
+            return execute(Latency.GET_AS, Jsoup.connect(urlify(getUrl))
                     .cookies(user.getAuth())
-                    .userAgent(userAgent)
-                    .get();
+                    .userAgent(userAgent))
+                    .parse();
         } catch (IOException e) {
             LOGGER.log(Level.SEVERE, "There was a problem performing an HTTP GET request", e);
             return null;
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public PowerschoolMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Sets where this client and the objects it creates record their metrics
+     *
+     * @param metrics {@link PowerschoolMetrics} to record to, or null to record nothing
+     */
+    public void setMetrics(PowerschoolMetrics metrics) {
+        this.metrics = metrics == null ? PowerschoolMetrics.noop() : metrics;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SectionCatalog getSectionCatalog() {
+        return sectionCatalog;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isLazyParsing() {
+        return lazyParsing;
+    }
+
+    /**
+     * Sets whether users parse their home page lazily. Lazy users only parse the courses and grades that are read,
+     * which is cheaper when callers only need the person name or a single course, but they keep the home page
+     * document in memory until every course has been read.
+     *
+     * @param lazyParsing Whether home pages should be parsed lazily
+     */
+    public void setLazyParsing(boolean lazyParsing) {
+        this.lazyParsing = lazyParsing;
+    }
+
+    /**
+     * Sets the policy for prefetching assignments in the background after a user logs in or is refreshed.
+     * Replacing a policy stops the old prefetch threads once their queued prefetches finish.
+     *
+     * @param policy {@link PrefetchPolicy} to use, or null to stop prefetching
+     */
+    public void setPrefetchPolicy(PrefetchPolicy policy) {
+        AssignmentPrefetcher previous;
+        synchronized (this) {
+            previous = prefetcher;
+            prefetcher = policy == null ? null : new AssignmentPrefetcher(policy);
+        }
+        if (previous != null) {
+            previous.shutdown();
+        }
+    }
+
+    /**
+     * @return Policy for prefetching assignments, or null if nothing is prefetched
+     */
+    public PrefetchPolicy getPrefetchPolicy() {
+        AssignmentPrefetcher current = prefetcher;
+        return current == null ? null : current.getPolicy();
+    }
+
+    /**
+     * Cancels the prefetched assignments of a user that haven't been used yet
+     *
+     * @param user User to cancel the prefetches of
+     */
+    public void cancelPrefetches(User user) {
+        AssignmentPrefetcher current = prefetcher;
+        if (current != null) {
+            current.cancel(user);
+        }
+    }
+
+    /**
+     * Starts prefetching the assignments of a user if there is a prefetch policy
+     *
+     * @param user User to prefetch for
+     */
+    private void startPrefetch(User user) {
+        AssignmentPrefetcher current = prefetcher;
+        if (current != null) {
+            current.start(user);
+        }
+    }
+
+    /**
+     * Returns the cache of credentials that recently failed to log in.
+     * Known-bad credentials fail locally until they change or their backoff expires.
+     *
+     * @return the {@link LoginFailureCache} of this client
+     */
+    public LoginFailureCache getLoginFailureCache() {
+        return loginFailureCache;
+    }
+
     /**
      * @return Powerschool Install URL
      */
+    @Override
     public String getPsInstallURL() {
         return psInstallURL;
     }
@@ -0,0 +1,95 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Daniel Sage
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.dnsge.powerschoolapi.client;
+
+import org.dnsge.powerschoolapi.util.Fingerprints;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Finds and fingerprints the course table of a raw home page response without parsing it
+ * <p>
+ * The fingerprint covers the bytes from the {@code quickLookup} element up to the end of its table, which is
+ * everything that {@code User} reads courses and grades from.
+ *
+ * @author Daniel Sage
+ * @version 1.0
+ */
+final class HomePageFingerprint {
+
+    /** Fingerprint of a page without a course table */
+    static final long NONE = 0L;
+
+    private static final byte[] QUICK_LOOKUP = "id=\"quickLookup\"".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TABLE_END = "</table>".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] LOGGED_IN = "Grades and Attendance".getBytes(StandardCharsets.US_ASCII);
+
+    private HomePageFingerprint() {
+    }
+
+    /**
+     * @param body Raw home page response
+     * @return Fingerprint of the course table, or {@link #NONE} if it could not be found
+     */
+    static long of(byte[] body) {
+        int start = indexOf(body, QUICK_LOOKUP, 0);
+        if (start < 0) {
+            return NONE;
+        }
+        int end = indexOf(body, TABLE_END, start);
+        if (end < 0) {
+            return NONE;
+        }
+        long fingerprint = Fingerprints.of(body, start, end + TABLE_END.length);
+        return fingerprint == NONE ? 1L : fingerprint;
+    }
+
+    /**
+     * @param body Raw home page response
+     * @return Whether the page is the home page of a logged in user
+     */
+    static boolean isLoggedIn(byte[] body) {
+        return indexOf(body, LOGGED_IN, 0) >= 0;
+    }
+
+    private static int indexOf(byte[] haystack, byte[] needle, int from) {
+        byte first = needle[0];
+        int last = haystack.length - needle.length;
+        outer:
+        for (int i = from; i <= last; i++) {
+            if (haystack[i] != first) {
+                continue;
+            }
+            for (int j = 1; j < needle.length; j++) {
+                if (haystack[i + j] != needle[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+}
@@ -0,0 +1,365 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Daniel Sage
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.dnsge.powerschoolapi.client;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Negative cache of credentials that recently failed to log in
+ * <p>
+ * Entries are keyed by username and remember a salted fingerprint of the failing password. While an entry is
+ * backing off, logging in with the same credentials fails locally without contacting Powerschool. Each consecutive
+ * failure doubles the backoff, up to a maximum. Logging in with different credentials, or succeeding, discards the
+ * entry.
+ * <p>
+ * The number of entries is bounded. When a failure pushes the cache past its bound, the entry that expires soonest
+ * out of a few sampled round robin is removed, which drops expired entries first without scanning the whole cache.
+ * {@link #removeExpired()} can also be called
+ * periodically, at the cost of restarting the backoff of a streak that fails again.
+ *
+ * @author Daniel Sage
+ * @version 1.0
+ * @see DefaultPowerschoolClient#getLoginFailureCache()
+ */
+public final class LoginFailureCache {
+
+    private static final Logger LOGGER = Logger.getLogger(LoginFailureCache.class.getName());
+
+    /** Default backoff after the first failure */
+    public static final Duration DEFAULT_INITIAL_BACKOFF = Duration.ofMinutes(1);
+    /** Default upper bound for the backoff */
+    public static final Duration DEFAULT_MAX_BACKOFF = Duration.ofHours(6);
+    /** Default maximum number of entries */
+    public static final int DEFAULT_MAX_ENTRIES = 10_000;
+
+    private static final int EVICTION_SAMPLES = 8;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final byte[] salt = new byte[16];
+    private final ThreadLocal<MessageDigest> digests = ThreadLocal.withInitial(LoginFailureCache::newDigest);
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final int maxEntries;
+    private final Clock clock;
+    private Iterator<Entry> cursor; // Guarded by cursorLock
+    private final Object cursorLock = new Object();
+
+    /**
+     * Creates a LoginFailureCache with the default backoff bounds
+     */
+    public LoginFailureCache() {
+        this(DEFAULT_INITIAL_BACKOFF, DEFAULT_MAX_BACKOFF);
+    }
+
+    /**
+     * Creates a LoginFailureCache with custom backoff bounds
+     *
+     * @param initialBackoff Backoff after the first failure
+     * @param maxBackoff     Upper bound for the backoff
+     */
+    public LoginFailureCache(Duration initialBackoff, Duration maxBackoff) {
+        this(initialBackoff, maxBackoff, DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Creates a LoginFailureCache with custom backoff bounds and size
+     *
+     * @param initialBackoff Backoff after the first failure
+     * @param maxBackoff     Upper bound for the backoff
+     * @param maxEntries     Maximum number of entries
+     */
+    public LoginFailureCache(Duration initialBackoff, Duration maxBackoff, int maxEntries) {
+        this(initialBackoff, maxBackoff, maxEntries, Clock.systemUTC());
+    }
+
+    LoginFailureCache(Duration initialBackoff, Duration maxBackoff, int maxEntries, Clock clock) {
+        if (initialBackoff.isNegative() || maxBackoff.compareTo(initialBackoff) < 0) {
+            throw new IllegalArgumentException("Invalid backoff bounds");
+        }
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Maximum entries must be positive");
+        }
+        this.initialBackoffMillis = initialBackoff.toMillis();
+        this.maxBackoffMillis = maxBackoff.toMillis();
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+        new SecureRandom().nextBytes(salt);
+    }
+
+    /**
+     * Fails fast if the credentials are known to be bad and still backing off
+     *
+     * @param username Username to check
+     * @param password Password to check
+     * @throws PowerschoolLoginException if the credentials are backing off
+     */
+    void checkAllowed(String username, String password) {
+        Entry entry = entries.get(username);
+        if (entry == null) {
+            return;
+        }
+
+        if (!MessageDigest.isEqual(entry.fingerprint, fingerprint(password))) {
+            // Credentials changed since the failure, forget about it
+            entries.remove(username, entry);
+            return;
+        }
+
+        if (clock.millis() < entry.retryAtMillis) {
+            throw new PowerschoolLoginException("Invalid login information (cached, retry after " +
+                    entry.getRetryAt() + ")");
+        }
+    }
+
+    /**
+     * Records a failed login, starting or extending the backoff
+     *
+     * @param username Username that failed
+     * @param password Password that failed
+     */
+    void recordFailure(String username, String password) {
+        byte[] fingerprint = fingerprint(password);
+        long now = clock.millis();
+
+        Entry updated = entries.compute(username, (k, old) -> {
+            int failures = old != null && MessageDigest.isEqual(old.fingerprint, fingerprint) ? old.failures + 1 : 1;
+            long firstFailure = failures == 1 ? now : old.firstFailureMillis;
+            return new Entry(k, fingerprint, failures, firstFailure, now, now + backoffMillis(failures));
+        });
+
+        LOGGER.fine("Login failed " + updated.failures + " time(s), backing off until " + updated.getRetryAt());
+
+        if (entries.size() > maxEntries) {
+            evict();
+        }
+    }
+
+    /**
+     * Removes entries until the cache is back within its bound, each time dropping the one that expires soonest out
+     * of a few entries taken round robin
+     */
+    private void evict() {
+        synchronized (cursorLock) {
+            while (entries.size() > maxEntries) {
+                Entry soonest = null;
+                for (int i = 0; i < EVICTION_SAMPLES; i++) {
+                    if (cursor == null || !cursor.hasNext()) {
+                        cursor = entries.values().iterator();
+                        if (!cursor.hasNext()) {
+                            return;
+                        }
+                    }
+                    Entry candidate = cursor.next();
+                    if (soonest == null || candidate.retryAtMillis < soonest.retryAtMillis) {
+                        soonest = candidate;
+                    }
+                }
+                entries.remove(soonest.username, soonest);
+            }
+        }
+    }
+
+    /**
+     * Removes every entry whose backoff has expired
+     *
+     * @return Number of entries removed
+     */
+    public int removeExpired() {
+        long now = clock.millis();
+        int removed = 0;
+        for (Entry entry : entries.values()) {
+            if (entry.retryAtMillis <= now && entries.remove(entry.username, entry)) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Records a successful login, discarding any entry for the user
+     *
+     * @param username Username that succeeded
+     */
+    void recordSuccess(String username) {
+        entries.remove(username);
+    }
+
+    /**
+     * Gets the backoff after a number of consecutive failures
+     *
+     * @param failures Number of consecutive failures
+     * @return Backoff in milliseconds
+     */
+    private long backoffMillis(int failures) {
+        int shift = Math.min(failures - 1, 30);
+        long backoff = initialBackoffMillis << shift;
+        return backoff < 0 || backoff > maxBackoffMillis ? maxBackoffMillis : backoff;
+    }
+
+    /**
+     * Creates a salted fingerprint of a password so that it is never kept around in plain text
+     *
+     * @param password Password to fingerprint
+     * @return Fingerprint bytes
+     */
+    private byte[] fingerprint(String password) {
+        MessageDigest digest = digests.get();
+        digest.update(salt);
+        return digest.digest(password.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Gets the entry for a username
+     *
+     * @param username Username to get
+     * @return Entry for the username, or null if there is none
+     */
+    public Entry get(String username) {
+        return entries.get(username);
+    }
+
+    /**
+     * @return Snapshot of all entries, sorted by username
+     */
+    public Map<String, Entry> getEntries() {
+        return new TreeMap<>(entries);
+    }
+
+    /**
+     * Removes the entry for a username, allowing an immediate retry
+     *
+     * @param username Username to forget
+     */
+    public void clear(String username) {
+        entries.remove(username);
+    }
+
+    /**
+     * Removes every entry
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * @return Number of usernames with an entry
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Immutable record of consecutive login failures for one username
+     */
+    public final class Entry {
+
+        private final String username;
+        private final byte[] fingerprint;
+        private final int failures;
+        private final long firstFailureMillis;
+        private final long lastFailureMillis;
+        private final long retryAtMillis;
+
+        private Entry(String username, byte[] fingerprint, int failures, long firstFailureMillis,
+                      long lastFailureMillis, long retryAtMillis) {
+            this.username = username;
+            this.fingerprint = fingerprint;
+            this.failures = failures;
+            this.firstFailureMillis = firstFailureMillis;
+            this.lastFailureMillis = lastFailureMillis;
+            this.retryAtMillis = retryAtMillis;
+        }
+
+        /**
+         * @return Username that failed
+         */
+        public String getUsername() {
+            return username;
+        }
+
+        /**
+         * @return Number of consecutive failures with the same credentials
+         */
+        public int getFailures() {
+            return failures;
+        }
+
+        /**
+         * @return Time of the first failure in the current streak
+         */
+        public Instant getFirstFailure() {
+            return Instant.ofEpochMilli(firstFailureMillis);
+        }
+
+        /**
+         * @return Time of the most recent failure
+         */
+        public Instant getLastFailure() {
+            return Instant.ofEpochMilli(lastFailureMillis);
+        }
+
+        /**
+         * @return Time after which the credentials will be tried against Powerschool again
+         */
+        public Instant getRetryAt() {
+            return Instant.ofEpochMilli(retryAtMillis);
+        }
+
+        /**
+         * @return Whether logins with these credentials are currently failing locally
+         */
+        public boolean isBackingOff() {
+            return clock.millis() < retryAtMillis;
+        }
+
+        /**
+         * @return A {@code String} formatted like {@code "{username}: {failures} failure(s), retry at {retryAt}"}
+         */
+        @Override
+        public String toString() {
+            return username + ": " + failures + " failure(s), retry at " + getRetryAt();
+        }
+    }
+
+}
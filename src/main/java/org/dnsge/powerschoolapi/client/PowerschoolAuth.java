@@ -24,13 +24,7 @@
 
 package org.dnsge.powerschoolapi.client;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
 import java.security.InvalidKeyException;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
-import java.util.Base64;
-import java.util.Formatter;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -44,22 +38,6 @@ final class PowerschoolAuth {
 
     private static final Logger LOGGER = Logger.getLogger(PowerschoolAuth.class.getName());
 
-    /**
-     * Returns a hex String from a byte[]
-     *
-     * @param bytes byte[] to convert
-     * @return String with hex digits
-     */
-    private static String toHexString(byte[] bytes) {
-        Formatter formatter = new Formatter();
-
-        for (byte b : bytes) {
-            formatter.format("%02x", b);
-        }
-
-        return formatter.toString();
-    }
-
     /**
      * Calculates a HMAC MD5 from data and a key
      *
@@ -69,12 +47,8 @@ final class PowerschoolAuth {
      */
     private static String hmacMD5(String data, String key) {
         try {
-            SecretKeySpec signingKey = new SecretKeySpec(key.getBytes(), "HmacMD5");
-            Mac hmac = Mac.getInstance("HmacMD5");
-            hmac.init(signingKey);
-
-            return toHexString(hmac.doFinal(data.getBytes()));
-        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            return CredentialHasher.current().hmacMd5Hex(data, key);
+        } catch (InvalidKeyException e) {
             LOGGER.log(Level.SEVERE, "Fatal Error while performing HMAC", e);
             return null;
         }
@@ -100,16 +74,34 @@ final class PowerschoolAuth {
      */
     public static String getPWField(String contextData, String password) {
         try {
-            MessageDigest m = MessageDigest.getInstance("MD5");
-            byte[] hashedPw = m.digest(password.getBytes());
-            String b64Pw = Base64.getEncoder().encodeToString(hashedPw).replace("=", "");
-
-            return hmacMD5(b64Pw, contextData);
-
-        } catch (NoSuchAlgorithmException e) {
-            LOGGER.log(Level.SEVERE, "Fatal Error while performing MD5", e);
+            return CredentialHasher.current().hmacMd5OfPasswordDigest(password, contextData);
+        } catch (InvalidKeyException e) {
+            LOGGER.log(Level.SEVERE, "Fatal Error while performing HMAC", e);
             return null;
         }
     }
 
+    /**
+     * Creates the {@code pw} field from a digest made by {@link #getPasswordDigest(String)}
+     * <p>
+     * Only the HMAC depends on the {@code contextData}, so the digest can be computed once and reused for every login
+     *
+     * @param contextData    ContextData from a hidden form value
+     * @param passwordDigest Digest of the password of user
+     * @return Desired pw value
+     */
+    public static String getPWFieldFromDigest(String contextData, String passwordDigest) {
+        return hmacMD5(passwordDigest, contextData);
+    }
+
+    /**
+     * Creates the session independent part of the {@code pw} field, {@code Base64(MD5(password))} without padding
+     *
+     * @param password Password of user
+     * @return Password digest
+     */
+    public static String getPasswordDigest(String password) {
+        return CredentialHasher.current().passwordDigest(password);
+    }
+
 }
@@ -24,10 +24,14 @@
 
 package org.dnsge.powerschoolapi.client;
 
+import org.dnsge.powerschoolapi.detail.SectionCatalog;
+import org.dnsge.powerschoolapi.metrics.PowerschoolMetrics;
 import org.dnsge.powerschoolapi.user.User;
 import org.jsoup.nodes.Document;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Interface that defines a client to interface with a Powerschool Portal
@@ -62,9 +66,50 @@ public interface PowerschoolClient {
      * @param user User to update
      * @throws IOException               if something goes wrong
      * @throws PowerschoolLoginException if invalid username/password
+     * @see #refreshUserWithResult(User)
      */
     void refreshUser(User user) throws IOException;
 
+    /**
+     * Refreshes the information of a User and tells what the refresh did
+     * <p>
+     * This default calls {@link #refreshUser(User)} and, since it can't tell, reports the user as changed without
+     * logging in again. Clients that know better override it.
+     *
+     * @param user User to update
+     * @return {@code RefreshResult} telling whether anything changed
+     * @throws IOException               if something goes wrong
+     * @throws PowerschoolLoginException if invalid username/password
+     */
+    default RefreshResult refreshUserWithResult(User user) throws IOException {
+        refreshUser(user);
+        return RefreshResult.of(true, false);
+    }
+
+    /**
+     * Refreshes many users, stalest first
+     * <p>
+     * Each account, identified by install URL and username, is refreshed once even if several users log in to it.
+     * This default runs serially: it refreshes the users one at a time through this client's {@link
+     * #refreshUserWithResult(User)} on the calling thread and returns an already completed future. {@link
+     * PowerschoolClientRegistry#refreshAll(Collection)} refreshes them concurrently.
+     *
+     * @param users Users to refresh
+     * @return Future of the report of the batch
+     * @see #refreshUserWithResult(User)
+     */
+    default CompletableFuture<RefreshReport> refreshAll(Collection<User> users) {
+        RefreshReport.Builder report = new RefreshReport.Builder();
+        for (User user : RefreshReport.plan(users)) {
+            try {
+                report.success(user, refreshUserWithResult(user));
+            } catch (IOException | RuntimeException e) {
+                report.failure(user, e);
+            }
+        }
+        return CompletableFuture.completedFuture(report.build());
+    }
+
     /**
      * Preforms a GET request with the authentication cookies of a {@code User} object
      *
@@ -75,4 +120,38 @@ public interface PowerschoolClient {
      */
     Document getAs(User user, String getUrl);
 
+    /**
+     * @return Base install URL of the Powerschool server, ending with a '/'
+     */
+    default String getPsInstallURL() {
+        return urlify("/");
+    }
+
+    /**
+     * Gets where this client and the objects it creates record their metrics
+     *
+     * @return {@code PowerschoolMetrics} to record to, by default one that records nothing
+     * @see PowerschoolMetrics
+     */
+    default PowerschoolMetrics getMetrics() {
+        return PowerschoolMetrics.noop();
+    }
+
+    /**
+     * @return Catalog of course sections shared by the users of this client, or null if sections aren't shared
+     * @see SectionCatalog
+     */
+    default SectionCatalog getSectionCatalog() {
+        return null;
+    }
+
+    /**
+     * Gets whether users parse their home page lazily, deferring each course and its grades until first read
+     *
+     * @return Whether home pages are parsed lazily, by default false
+     */
+    default boolean isLazyParsing() {
+        return false;
+    }
+
 }
@@ -0,0 +1,244 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Daniel Sage
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.dnsge.powerschoolapi.client;
+
+import org.dnsge.powerschoolapi.detail.SectionCatalog;
+import org.dnsge.powerschoolapi.user.User;
+import org.dnsge.powerschoolapi.util.StringPool;
+import org.dnsge.powerschoolapi.util.FairShareExecutor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registry of {@link DefaultPowerschoolClient DefaultPowerschoolClients} for many Powerschool installs
+ * <p>
+ * Clients are created lazily the first time an install is used. Work for every install runs on one shared thread
+ * pool, with installs taking turns fairly and each install limited to a fixed number of concurrent requests, so
+ * that one large district can't starve the others. HTTP connections are already pooled JVM-wide by the
+ * {@code HttpURLConnection} keep-alive cache that Jsoup uses.
+ * <p>
+ * Every client records its sections in one {@link SectionCatalog} owned by the registry, so the memory spent on
+ * sections is bounded by a single budget however many installs are in use. Section keys include the install URL, so
+ * installs never share entries with each other. Parsed Strings are deduplicated by the process-wide
+ * {@link StringPool#shared() StringPool}.
+ *
+ * @author Daniel Sage
+ * @version 1.0
+ */
+public final class PowerschoolClientRegistry implements AutoCloseable {
+
+    private final String userAgent;
+    private final ConcurrentHashMap<String, DefaultPowerschoolClient> clients = new ConcurrentHashMap<>();
+    private final ExecutorService pool;
+    private final FairShareExecutor<String> scheduler;
+    private final SectionCatalog sectionCatalog;
+
+    /**
+     * Creates a registry with the default UserAgent
+     *
+     * @param poolSize           Number of threads shared by every install
+     * @param perInstallRequests Maximum number of concurrent tasks for a single install
+     */
+    public PowerschoolClientRegistry(int poolSize, int perInstallRequests) {
+        this(poolSize, perInstallRequests, null);
+    }
+
+    /**
+     * Creates a registry
+     *
+     * @param poolSize           Number of threads shared by every install
+     * @param perInstallRequests Maximum number of concurrent tasks for a single install
+     * @param userAgent          UserAgent used by every client, or null for the default
+     */
+    public PowerschoolClientRegistry(int poolSize, int perInstallRequests, String userAgent) {
+        this(poolSize, perInstallRequests, userAgent, SectionCatalog.DEFAULT_MAX_SECTIONS);
+    }
+
+    /**
+     * Creates a registry
+     *
+     * @param poolSize           Number of threads shared by every install
+     * @param perInstallRequests Maximum number of concurrent tasks for a single install
+     * @param userAgent          UserAgent used by every client, or null for the default
+     * @param maxSections        Maximum number of sections cataloged across every install
+     */
+    public PowerschoolClientRegistry(int poolSize, int perInstallRequests, String userAgent, int maxSections) {
+        this.userAgent = userAgent == null ? DefaultPowerschoolClient.DEFAULT_USER_AGENT : userAgent;
+        this.pool = Executors.newFixedThreadPool(poolSize, new RegistryThreadFactory());
+        this.scheduler = new FairShareExecutor<>(pool, poolSize, perInstallRequests);
+        this.sectionCatalog = new SectionCatalog(maxSections);
+    }
+
+    /**
+     * Gets the client for an install, creating it if needed
+     *
+     * @param psInstallURL Install URL of the Powerschool server
+     * @return Client for the install
+     */
+    public DefaultPowerschoolClient getClient(String psInstallURL) {
+        return clients.computeIfAbsent(DefaultPowerschoolClient.fixUrl(psInstallURL),
+                url -> new DefaultPowerschoolClient(url, userAgent, sectionCatalog));
+    }
+
+    /**
+     * Runs a task against the client of an install on the shared pool
+     *
+     * @param psInstallURL Install URL of the Powerschool server
+     * @param task         Task to run
+     * @param <T>          Result type of the task
+     * @return Future that completes with the result of the task
+     */
+    public <T> CompletableFuture<T> submit(String psInstallURL, ClientTask<T> task) {
+        DefaultPowerschoolClient client = getClient(psInstallURL);
+        return scheduler.submit(client.getPsInstallURL(), () -> task.run(client));
+    }
+
+    /**
+     * Logs in a user on the shared pool
+     *
+     * @param psInstallURL Install URL of the Powerschool server
+     * @param username     Username to login with
+     * @param password     Password to login with
+     * @return Future that completes with the new {@code User}
+     * @see PowerschoolClient#authenticate(String, String)
+     */
+    public CompletableFuture<User> authenticate(String psInstallURL, String username, String password) {
+        return submit(psInstallURL, client -> client.authenticate(username, password));
+    }
+
+    /**
+     * Refreshes a user on the shared pool, counting against the share of the user's install
+     *
+     * @param user User to refresh
+     * @return Future that completes once the user is refreshed
+     * @see PowerschoolClient#refreshUserWithResult(User)
+     */
+    public CompletableFuture<RefreshResult> refreshUser(User user) {
+        return scheduler.submit(user.getClient().getPsInstallURL(), () -> user.getClient().refreshUserWithResult(user));
+    }
+
+    /**
+     * Refreshes many users on the shared pool, stalest first
+     * <p>
+     * Each account, identified by install URL and username, is refreshed once even if several users log in to it.
+     * Refreshes count against the share of each
+     * user's install, so the pool size and per-install limit bound the batch like any other work.
+     *
+     * @param users Users to refresh
+     * @return Future of the report of the batch, which completes once every user was refreshed or failed
+     * @see PowerschoolClient#refreshAll(Collection)
+     */
+    public CompletableFuture<RefreshReport> refreshAll(Collection<User> users) {
+        RefreshReport.Builder report = new RefreshReport.Builder();
+        List<CompletableFuture<Void>> refreshes = new ArrayList<>();
+        for (User user : RefreshReport.plan(users)) {
+            refreshes.add(refreshUser(user).handle((result, error) -> {
+                if (error == null) {
+                    report.success(user, result);
+                } else {
+                    report.failure(user, error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error);
+                }
+                return null;
+            }));
+        }
+        return CompletableFuture.allOf(refreshes.toArray(new CompletableFuture<?>[0])).thenApply(done -> report.build());
+    }
+
+    /**
+     * @return Snapshot of the clients created so far, keyed by install URL
+     */
+    public Map<String, DefaultPowerschoolClient> getClients() {
+        return new TreeMap<>(clients);
+    }
+
+    /**
+     * @return Catalog of the sections of every install
+     */
+    public SectionCatalog getSectionCatalog() {
+        return sectionCatalog;
+    }
+
+    /**
+     * @return Scheduler that shares the pool between installs
+     */
+    public FairShareExecutor<String> getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Stops accepting tasks. Tasks already queued still run, fairly as before, and the shared pool shuts down once
+     * the last of them finished. Tasks submitted afterwards fail with a {@code RejectedExecutionException}.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdown().whenComplete((done, error) -> pool.shutdown());
+    }
+
+    /**
+     * Task that runs against the client of a single install
+     *
+     * @param <T> Result type of the task
+     */
+    @FunctionalInterface
+    public interface ClientTask<T> {
+
+        /**
+         * Runs the task
+         *
+         * @param client Client of the install
+         * @return Result of the task
+         * @throws Exception if something goes wrong
+         */
+        T run(DefaultPowerschoolClient client) throws Exception;
+
+    }
+
+    /**
+     * Creates named daemon threads for the shared pool
+     */
+    private static final class RegistryThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "powerschool-registry-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    }
+
+}
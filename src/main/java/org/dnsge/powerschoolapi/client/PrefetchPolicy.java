@@ -0,0 +1,169 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Daniel Sage
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.dnsge.powerschoolapi.client;
+
+import org.dnsge.powerschoolapi.detail.Course;
+import org.dnsge.powerschoolapi.detail.GradeGroup;
+import org.dnsge.powerschoolapi.detail.GradingPeriod;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Policy for prefetching assignments in the background after a user logs in or is refreshed
+ * <p>
+ * Prefetches run on a small pool of low priority daemon threads, with users taking turns fairly. An interactive
+ * {@link Course#getAssignments(GradingPeriod)} takes over a prefetch that hasn't started yet, so it never waits
+ * behind background work.
+ *
+ * @author Daniel Sage
+ * @version 1.0
+ * @see DefaultPowerschoolClient#setPrefetchPolicy(PrefetchPolicy)
+ */
+public final class PrefetchPolicy {
+
+    /** Default number of prefetch threads per client */
+    public static final int DEFAULT_THREADS = 2;
+    /** Default maximum number of concurrent prefetches for a single user */
+    public static final int DEFAULT_PER_USER_LIMIT = 1;
+
+    private final GradingPeriod[] periods;
+    private final int threads;
+    private final int perUserLimit;
+
+    private PrefetchPolicy(GradingPeriod[] periods, int threads, int perUserLimit) {
+        if (threads < 1 || perUserLimit < 1) {
+            throw new IllegalArgumentException("Limits must be positive");
+        }
+        this.periods = periods;
+        this.threads = threads;
+        this.perUserLimit = perUserLimit;
+    }
+
+    /**
+     * Creates a policy that prefetches the grading period each course is currently in. When several grading
+     * periods include today, like a quarter and its semester, the shortest one is used.
+     *
+     * @return The new PrefetchPolicy
+     */
+    public static PrefetchPolicy currentPeriod() {
+        return new PrefetchPolicy(new GradingPeriod[0], DEFAULT_THREADS, DEFAULT_PER_USER_LIMIT);
+    }
+
+    /**
+     * Creates a policy that prefetches fixed grading periods
+     *
+     * @param periods Grading periods to prefetch
+     * @return The new PrefetchPolicy
+     */
+    public static PrefetchPolicy of(GradingPeriod... periods) {
+        if (periods.length == 0) {
+            throw new IllegalArgumentException("No grading periods to prefetch");
+        }
+        return new PrefetchPolicy(periods.clone(), DEFAULT_THREADS, DEFAULT_PER_USER_LIMIT);
+    }
+
+    /**
+     * @param threads Number of prefetch threads per client
+     * @return Copy of this policy with a different number of threads
+     */
+    public PrefetchPolicy withThreads(int threads) {
+        return new PrefetchPolicy(periods, threads, perUserLimit);
+    }
+
+    /**
+     * @param perUserLimit Maximum number of concurrent prefetches for a single user
+     * @return Copy of this policy with a different per user limit
+     */
+    public PrefetchPolicy withPerUserLimit(int perUserLimit) {
+        return new PrefetchPolicy(periods, threads, perUserLimit);
+    }
+
+    /**
+     * Selects the grade groups of a course to prefetch
+     *
+     * @param course Course to select from
+     * @param today  Current day
+     * @return Non-empty grade groups to prefetch
+     */
+    List<GradeGroup> select(Course course, LocalDate today) {
+        List<GradeGroup> selected = new ArrayList<>();
+        if (periods.length > 0) {
+            for (GradingPeriod period : periods) {
+                GradeGroup gg = course.getGradeGroup(period);
+                if (gg != null && !gg.isEmpty()) {
+                    selected.add(gg);
+                }
+            }
+            return selected;
+        }
+
+        GradeGroup best = null;
+        long bestLength = Long.MAX_VALUE;
+        for (GradeGroup gg : course.getCourseGrades()) {
+            if (!gg.isEmpty() && gg.covers(today)) {
+                long length = gg.getEndDate().toEpochDay() - gg.getStartDate().toEpochDay();
+                if (length < bestLength) {
+                    best = gg;
+                    bestLength = length;
+                }
+            }
+        }
+        if (best != null) {
+            selected.add(best);
+        }
+        return selected;
+    }
+
+    /**
+     * @return Fixed grading periods to prefetch, or an empty list to prefetch the current one
+     */
+    public List<GradingPeriod> getPeriods() {
+        return Arrays.asList(periods.clone());
+    }
+
+    /**
+     * @return Number of prefetch threads per client
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * @return Maximum number of concurrent prefetches for a single user
+     */
+    public int getPerUserLimit() {
+        return perUserLimit;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PrefetchPolicy(%s, threads=%d, perUser=%d)",
+                periods.length == 0 ? "current" : Arrays.toString(periods), threads, perUserLimit);
+    }
+
+}
@@ -0,0 +1,275 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Daniel Sage
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.dnsge.powerschoolapi.client;
+
+import org.dnsge.powerschoolapi.metrics.LatencyHistogram;
+import org.dnsge.powerschoolapi.user.User;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Refreshes users in two stages, so that blocking requests and CPU-bound parsing don't compete for the same threads
+ * <p>
+ * The I/O stage performs the requests of a refresh, logging in again if needed, and hands the raw home page bytes to
+ * the CPU stage. The CPU stage, sized to the number of cores by default, fingerprints and parses the page and updates
+ * the {@code User}. Both stages only accept a bounded number of users: {@link #submit(User)} blocks while the I/O
+ * stage is full, and I/O threads block while the CPU stage is full, so a slow stage holds back the one before it
+ * instead of piling up pages in memory. Each stage records how long it takes.
+ * <p>
+ * Users of clients other than {@link DefaultPowerschoolClient} can't be split, and are refreshed entirely in the
+ * I/O stage.
+ *
+ * @author Daniel Sage
+ * @version 1.0
+ */
+public final class RefreshPipeline implements AutoCloseable {
+
+    /**
+     * Stages whose latency is recorded
+     */
+    public enum Stage {
+        /** Requests of a refresh, on the I/O stage */
+        FETCH,
+        /** Wait between the I/O stage finishing and the CPU stage starting */
+        QUEUE,
+        /** Parsing and updating of a user, on the CPU stage */
+        APPLY
+    }
+
+    private final ThreadPoolExecutor cpuPool;
+    private final ThreadPoolExecutor ioPool;
+    private final Semaphore intake;
+    private final Semaphore handoff;
+    private final LatencyHistogram[] latencies = new LatencyHistogram[Stage.values().length];
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    /**
+     * Creates a pipeline with one CPU thread per core and queues twice as deep as the I/O stage
+     *
+     * @param ioThreads Number of threads performing requests
+     */
+    public RefreshPipeline(int ioThreads) {
+        this(ioThreads, Runtime.getRuntime().availableProcessors(), ioThreads * 2);
+    }
+
+    /**
+     * Creates a pipeline
+     *
+     * @param ioThreads     Number of threads performing requests
+     * @param cpuThreads    Number of threads parsing home pages
+     * @param queueCapacity Number of users that may wait in front of each stage
+     */
+    public RefreshPipeline(int ioThreads, int cpuThreads, int queueCapacity) {
+        if (ioThreads < 1 || cpuThreads < 1 || queueCapacity < 0) {
+            throw new IllegalArgumentException("Thread counts must be positive and the capacity not negative");
+        }
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = new LatencyHistogram();
+        }
+        this.intake = new Semaphore(ioThreads + queueCapacity);
+        this.handoff = new Semaphore(cpuThreads + queueCapacity);
+        this.cpuPool = new ThreadPoolExecutor(cpuThreads, cpuThreads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), new StageThreadFactory("powerschool-refresh-cpu-"));
+        this.ioPool = new ThreadPoolExecutor(ioThreads, ioThreads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), new StageThreadFactory("powerschool-refresh-io-")) {
+            @Override
+            protected void terminated() {
+                // Nothing can be handed off anymore
+                cpuPool.shutdown();
+            }
+        };
+    }
+
+    /**
+     * Queues a refresh, waiting while the I/O stage is full
+     *
+     * @param user User to refresh
+     * @return Future that completes once the user is refreshed
+     * @throws InterruptedException if interrupted while waiting
+     * @see PowerschoolClient#refreshUserWithResult(User)
+     */
+    public CompletableFuture<RefreshResult> submit(User user) throws InterruptedException {
+        intake.acquire();
+        CompletableFuture<RefreshResult> future = new CompletableFuture<>();
+        try {
+            ioPool.execute(() -> fetch(user, future));
+        } catch (RejectedExecutionException e) {
+            intake.release();
+            fail(future, e);
+        }
+        return future;
+    }
+
+    /**
+     * Runs the I/O stage of a refresh and hands the result to the CPU stage
+     *
+     * @param user   User to refresh
+     * @param future Future of the refresh
+     */
+    private void fetch(User user, CompletableFuture<RefreshResult> future) {
+        try {
+            PowerschoolClient client = user.getClient();
+            long start = System.nanoTime();
+            if (!(client instanceof DefaultPowerschoolClient)) {
+                RefreshResult result = client.refreshUserWithResult(user);
+                record(Stage.FETCH, start);
+                complete(future, result);
+                return;
+            }
+
+            DefaultPowerschoolClient defaultClient = (DefaultPowerschoolClient) client;
+            DefaultPowerschoolClient.FetchedHome home = defaultClient.fetchRefresh(user);
+            record(Stage.FETCH, start);
+
+            long queued = System.nanoTime();
+            handoff.acquire();
+            try {
+                cpuPool.execute(() -> apply(defaultClient, user, home, queued, future));
+            } catch (RejectedExecutionException e) {
+                handoff.release();
+                throw e;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(future, e);
+        } catch (Throwable t) {
+            fail(future, t);
+        } finally {
+            intake.release();
+        }
+    }
+
+    /**
+     * Runs the CPU stage of a refresh
+     *
+     * @param client Client of the user
+     * @param user   User to refresh
+     * @param home   Home page fetched by the I/O stage
+     * @param queued Time the home page was fetched, from {@link System#nanoTime()}
+     * @param future Future of the refresh
+     */
+    private void apply(DefaultPowerschoolClient client, User user, DefaultPowerschoolClient.FetchedHome home,
+                       long queued, CompletableFuture<RefreshResult> future) {
+        try {
+            long start = System.nanoTime();
+            latencies[Stage.QUEUE.ordinal()].record(start - queued);
+            RefreshResult result = client.applyRefresh(user, home);
+            record(Stage.APPLY, start);
+            client.refreshed(user);
+            complete(future, result);
+        } catch (Throwable t) {
+            fail(future, t);
+        } finally {
+            handoff.release();
+        }
+    }
+
+    private void record(Stage stage, long startNano) {
+        latencies[stage.ordinal()].record(System.nanoTime() - startNano);
+    }
+
+    private void complete(CompletableFuture<RefreshResult> future, RefreshResult result) {
+        completed.increment();
+        future.complete(result);
+    }
+
+    private void fail(CompletableFuture<RefreshResult> future, Throwable t) {
+        failed.increment();
+        future.completeExceptionally(t);
+    }
+
+    /**
+     * @param stage Stage to get
+     * @return Latencies of a stage in nanoseconds
+     */
+    public LatencyHistogram getLatency(Stage stage) {
+        return latencies[stage.ordinal()];
+    }
+
+    /**
+     * @return Number of refreshes that finished successfully
+     */
+    public long getCompleted() {
+        return completed.sum();
+    }
+
+    /**
+     * @return Number of refreshes that failed
+     */
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    /**
+     * @return Number of users waiting for the I/O stage
+     */
+    public int getQueuedFetches() {
+        return ioPool.getQueue().size();
+    }
+
+    /**
+     * @return Number of fetched home pages waiting for the CPU stage
+     */
+    public int getQueuedApplies() {
+        return cpuPool.getQueue().size();
+    }
+
+    /**
+     * Stops accepting users. Queued refreshes still finish, then both stages stop.
+     */
+    @Override
+    public void close() {
+        ioPool.shutdown();
+    }
+
+    /**
+     * Creates named daemon threads for a stage
+     */
+    private static final class StageThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger count = new AtomicInteger();
+
+        private StageThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, prefix + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    }
+
+}
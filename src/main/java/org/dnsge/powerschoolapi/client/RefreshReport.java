@@ -0,0 +1,177 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Daniel Sage
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.dnsge.powerschoolapi.client;
+
+import org.dnsge.powerschoolapi.user.User;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Outcome of refreshing a batch of users, with the result or error of each user and totals for the batch
+ *
+ * @author Daniel Sage
+ * @version 1.0
+ * @see PowerschoolClient#refreshAll(Collection)
+ * @see PowerschoolClientRegistry#refreshAll(Collection)
+ */
+public final class RefreshReport {
+
+    private final Map<User, RefreshResult> results;
+    private final Map<User, Throwable> failures;
+    private final int changed;
+    private final int reloggedIn;
+    private final Duration elapsed;
+
+    private RefreshReport(Map<User, RefreshResult> results, Map<User, Throwable> failures, Duration elapsed) {
+        this.results = Collections.unmodifiableMap(results);
+        this.failures = Collections.unmodifiableMap(failures);
+        int changedCount = 0;
+        int reloggedInCount = 0;
+        for (RefreshResult result : results.values()) {
+            changedCount += result.isChanged() ? 1 : 0;
+            reloggedInCount += result.isReloggedIn() ? 1 : 0;
+        }
+        this.changed = changedCount;
+        this.reloggedIn = reloggedInCount;
+        this.elapsed = elapsed;
+    }
+
+    /**
+     * Keeps the first user of each account and orders them by staleness
+     *
+     * @param users Users to refresh
+     * @return One user per install URL and username, least recently refreshed first
+     */
+    static List<User> plan(Collection<User> users) {
+        Set<String> seen = new HashSet<>();
+        List<User> planned = new ArrayList<>(users.size());
+        for (User user : users) {
+            // Install URLs can't contain a space, so the key is unambiguous
+            if (seen.add(user.getClient().getPsInstallURL() + ' ' + user.getUsername())) {
+                planned.add(user);
+            }
+        }
+        planned.sort(Comparator.comparing(user -> user.getConfig().getRefreshedAt()));
+        return planned;
+    }
+
+    /**
+     * @return Results of the users that were refreshed, in the order they finished
+     */
+    public Map<User, RefreshResult> getResults() {
+        return results;
+    }
+
+    /**
+     * @return Errors of the users that failed, in the order they finished
+     */
+    public Map<User, Throwable> getFailures() {
+        return failures;
+    }
+
+    /**
+     * @return Number of distinct users in the batch
+     */
+    public int getTotal() {
+        return results.size() + failures.size();
+    }
+
+    /**
+     * @return Number of users whose courses or grades changed
+     */
+    public int getChanged() {
+        return changed;
+    }
+
+    /**
+     * @return Number of users refreshed without any change
+     */
+    public int getUnchanged() {
+        return results.size() - changed;
+    }
+
+    /**
+     * @return Number of users that had to log in again
+     */
+    public int getReloggedIn() {
+        return reloggedIn;
+    }
+
+    /**
+     * @return Number of users that failed to refresh
+     */
+    public int getFailed() {
+        return failures.size();
+    }
+
+    /**
+     * @return Time from the start of the batch until its last user finished
+     */
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    /**
+     * @return A {@code String} formatted like {@code "RefreshReport (total=.., changed=.., unchanged=..,
+     * reloggedIn=.., failed=.., elapsed=..)"}
+     */
+    @Override
+    public String toString() {
+        return String.format("RefreshReport (total=%d, changed=%d, unchanged=%d, reloggedIn=%d, failed=%d, elapsed=%s)",
+                getTotal(), changed, getUnchanged(), reloggedIn, getFailed(), elapsed);
+    }
+
+    /**
+     * Collects the outcomes of a batch as they finish, from any thread
+     */
+    static final class Builder {
+        private final long start = System.nanoTime();
+        private final Map<User, RefreshResult> results = new LinkedHashMap<>();
+        private final Map<User, Throwable> failures = new LinkedHashMap<>();
+
+        synchronized void success(User user, RefreshResult result) {
+            results.put(user, result);
+        }
+
+        synchronized void failure(User user, Throwable error) {
+            failures.put(user, error);
+        }
+
+        synchronized RefreshReport build() {
+            return new RefreshReport(new LinkedHashMap<>(results), new LinkedHashMap<>(failures),
+                    Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+}
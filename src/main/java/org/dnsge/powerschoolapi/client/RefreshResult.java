@@ -0,0 +1,80 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Daniel Sage
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.dnsge.powerschoolapi.client;
+
+/**
+ * Outcome of refreshing a {@code User}
+ *
+ * @author Daniel Sage
+ * @version 1.0
+ * @see PowerschoolClient#refreshUserWithResult(org.dnsge.powerschoolapi.user.User)
+ */
+public final class RefreshResult {
+
+    private static final RefreshResult[] RESULTS = {
+            new RefreshResult(false, false), new RefreshResult(true, false),
+            new RefreshResult(false, true), new RefreshResult(true, true)
+    };
+
+    private final boolean changed;
+    private final boolean reloggedIn;
+
+    private RefreshResult(boolean changed, boolean reloggedIn) {
+        this.changed = changed;
+        this.reloggedIn = reloggedIn;
+    }
+
+    /**
+     * @param changed    Whether the courses or grades changed
+     * @param reloggedIn Whether the user had to log in again
+     * @return The RefreshResult
+     */
+    public static RefreshResult of(boolean changed, boolean reloggedIn) {
+        return RESULTS[(changed ? 1 : 0) | (reloggedIn ? 2 : 0)];
+    }
+
+    /**
+     * @return Whether the courses or grades changed, so that the home page was parsed again
+     */
+    public boolean isChanged() {
+        return changed;
+    }
+
+    /**
+     * @return Whether the user's cookies had expired and they logged in again
+     */
+    public boolean isReloggedIn() {
+        return reloggedIn;
+    }
+
+    /**
+     * @return A {@code String} formatted like {@code "RefreshResult (changed={changed}, reloggedIn={reloggedIn})"}
+     */
+    @Override
+    public String toString() {
+        return "RefreshResult (changed=" + changed + ", reloggedIn=" + reloggedIn + ")";
+    }
+
+}
@@ -25,12 +25,13 @@
 package org.dnsge.powerschoolapi.detail;
 
 import org.dnsge.powerschoolapi.client.DefaultPowerschoolClient;
+import org.dnsge.powerschoolapi.metrics.PowerschoolMetrics;
+import org.dnsge.powerschoolapi.util.StringPool;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.time.LocalDate;
 import java.util.Date;
 import java.util.Objects;
 import java.util.logging.Level;
@@ -57,8 +58,10 @@ public class Assignment {
     private final String scoreLetterGrade;
     private final String dueDateString;
     private final String scoreEntryDateString;
-    private final Date dueDate;
-    private final Date scoreEntryDate;
+    private final int dueEpochDay;
+    private final int scoreEntryEpochDay;
+    private volatile Date dueDate;
+    private volatile Date scoreEntryDate;
 
     private final AssignmentFlagContainer flagContainer;
     private final boolean isMissingDetails;
@@ -81,8 +84,6 @@ public class Assignment {
     public Assignment(String name, Integer assignmentId, Integer totalPoints, Integer scoredPoints, Float scorePercent,
                       String scoreLetterGrade, String category, String dueDateString, String scoreEntryDateString,
                       AssignmentFlagContainer flagContainer, boolean isMissingDetails) {
-        Date dueDate1;
-        Date scoreEntryDate1;
         this.name = name;
         this.assignmentId = assignmentId;
         this.totalPoints = totalPoints;
@@ -94,28 +95,8 @@ public class Assignment {
         this.scoreEntryDateString = scoreEntryDateString;
         this.flagContainer = flagContainer;
         this.isMissingDetails = isMissingDetails;
-
-        if (dueDateString != null) {
-            try {
-                dueDate1 = new SimpleDateFormat("yyyy-MM-dd").parse(dueDateString);
-            } catch (ParseException e) {
-                dueDate1 = null;
-            }
-        } else {
-            dueDate1 = null;
-        }
-
-        dueDate = dueDate1;
-        if (scoreEntryDateString != null) {
-            try {
-                scoreEntryDate1 = new SimpleDateFormat("yyyy-MM-dd").parse(scoreEntryDateString);
-            } catch (ParseException e) {
-                scoreEntryDate1 = null;
-            }
-        } else {
-            scoreEntryDate1 = null;
-        }
-        scoreEntryDate = scoreEntryDate1;
+        this.dueEpochDay = AssignmentDates.epochDay(dueDateString);
+        this.scoreEntryEpochDay = AssignmentDates.epochDay(scoreEntryDateString);
     }
 
     /**
@@ -132,6 +113,38 @@ public class Assignment {
                 dueDateString, null, AssignmentFlagContainer.empty(), true);
     }
 
+    /**
+     * Constructor for subclasses that supply every value through the getters, such as the rows of an
+     * {@link AssignmentTable}
+     */
+    protected Assignment() {
+        this.name = null;
+        this.assignmentId = null;
+        this.totalPoints = null;
+        this.scoredPoints = null;
+        this.scorePercent = null;
+        this.scoreLetterGrade = null;
+        this.category = null;
+        this.dueDateString = null;
+        this.scoreEntryDateString = null;
+        this.dueEpochDay = AssignmentDates.NO_DATE;
+        this.scoreEntryEpochDay = AssignmentDates.NO_DATE;
+        this.flagContainer = null;
+        this.isMissingDetails = false;
+    }
+
+    /**
+     * Receives the values of a parsed assignment, in the same order as the basic Assignment constructor
+     *
+     * @param <T> Type created from the values
+     */
+    @FunctionalInterface
+    interface Factory<T> {
+        T create(String name, Integer assignmentId, Integer totalPoints, Integer scoredPoints, Float scorePercent,
+                 String scoreLetterGrade, String category, String dueDateString, String scoreEntryDateString,
+                 AssignmentFlagContainer flagContainer, boolean isMissingDetails);
+    }
+
     /**
      * Gets an integer from a JSONObject if it exists, else returns null
      *
@@ -202,7 +215,32 @@ public class Assignment {
      * @see Course
      */
     public static Assignment generateFromJsonObject(JSONObject assignmentJSON) {
+        return generateFromJsonObject(assignmentJSON, PowerschoolMetrics.noop());
+    }
+
+    /**
+     * Creates a new Assignment from a JSONObject, recording string pool lookups
+     *
+     * @param assignmentJSON JSONObject to use to construct the Assignment
+     * @param metrics        Metrics to record string pool lookups to
+     * @return New Assignment object from JSONObject
+     */
+    public static Assignment generateFromJsonObject(JSONObject assignmentJSON, PowerschoolMetrics metrics) {
+        return parseJson(assignmentJSON, metrics, Assignment::new);
+    }
+
+    /**
+     * Reads the values of an assignment from a JSONObject and hands them to a factory
+     *
+     * @param assignmentJSON JSONObject to read
+     * @param metrics        Metrics to record string pool lookups to
+     * @param factory        Factory receiving the values
+     * @param <T>            Type created by the factory
+     * @return Result of the factory, or null if the JSON could not be parsed
+     */
+    static <T> T parseJson(JSONObject assignmentJSON, PowerschoolMetrics metrics, Factory<T> factory) {
         LOGGER.fine("Beginning parse of JSON for Assignment details");
+        StringPool strings = StringPool.shared();
         try {
             // Read the JSONObject and createWithData a new Assignment object from it
             Integer assignmentId = getIntOrNull(assignmentJSON, "assignmentid");
@@ -211,14 +249,14 @@ public class Assignment {
             JSONArray assignmentScoresArray = assignmentSections.getJSONArray("_assignmentscores");
             JSONArray assignmentCategoryAssociations = assignmentSections.getJSONArray("_assignmentcategoryassociations");
 
-            String name = getStringOrNull(assignmentSections, "name");
-            String dueDate = getStringOrNull(assignmentSections, "duedate");
+            String name = strings.intern(getStringOrNull(assignmentSections, "name"), metrics);
+            String dueDate = strings.intern(getStringOrNull(assignmentSections, "duedate"), metrics);
             Integer totalPoints = getIntOrNull(assignmentSections, "totalpointvalue");
 
             String category;
             try {
-                category = assignmentCategoryAssociations.getJSONObject(0)
-                        .getJSONObject("_teachercategory").getString("name");
+                category = strings.intern(assignmentCategoryAssociations.getJSONObject(0)
+                        .getJSONObject("_teachercategory").getString("name"), metrics);
             } catch (JSONException i) {
                 category = null;
             }
@@ -228,8 +266,8 @@ public class Assignment {
 
                 Integer scoredPoints = getIntOrNull(assignmentScores, "scorepoints");// assignmentScores.getInt("scorepoints", null);
                 Float scorePercent = getFloatOrNull(assignmentScores, "scorepercent");
-                String scoreLetterGrade = getStringOrNull(assignmentScores, "scorelettergrade");
-                String scoreEntryDate = getStringOrNull(assignmentScores, "scoreentrydate");
+                String scoreLetterGrade = strings.intern(getStringOrNull(assignmentScores, "scorelettergrade"), metrics);
+                String scoreEntryDate = strings.intern(getStringOrNull(assignmentScores, "scoreentrydate"), metrics);
 
                 Boolean isCollected = getBooleanOrNull(assignmentScores, "iscollected");
                 Boolean isLate = getBooleanOrNull(assignmentScores, "islate");
@@ -238,13 +276,14 @@ public class Assignment {
                 Boolean isAbsent = getBooleanOrNull(assignmentScores, "isabsent");
                 Boolean isIncomplete = getBooleanOrNull(assignmentScores, "isincomplete");
 
-                return new Assignment(name, assignmentId, totalPoints, scoredPoints, scorePercent, scoreLetterGrade,
+                return factory.create(name, assignmentId, totalPoints, scoredPoints, scorePercent, scoreLetterGrade,
                         category, dueDate, scoreEntryDate,
-                        new AssignmentFlagContainer(isCollected, isLate, isMissing, isExempt, isAbsent, isIncomplete),
+                        AssignmentFlagContainer.of(isCollected, isLate, isMissing, isExempt, isAbsent, isIncomplete),
                         false
                 );
             } else {
-                return new Assignment(name, assignmentId, totalPoints, dueDate, category);
+                return factory.create(name, assignmentId, totalPoints, null, null, null, category,
+                        dueDate, null, AssignmentFlagContainer.empty(), true);
             }
 
         } catch (JSONException e) {
@@ -258,13 +297,13 @@ public class Assignment {
      */
     @Override
     public String toString() {
-        return name + " (" + scorePercent + ")";
+        return getName() + " (" + getScorePercent() + ")";
     }
 
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
+        if (!(o instanceof Assignment)) return false;
         Assignment that = (Assignment) o;
         return isMissingDetails() == that.isMissingDetails() &&
                 getName().equals(that.getName()) &&
@@ -394,7 +433,12 @@ public class Assignment {
      * @see Date
      */
     public Date getDueDate() {
-        return dueDate;
+        Date date = dueDate;
+        if (date == null && dueDateString != null) {
+            date = AssignmentDates.toDate(dueEpochDay, dueDateString);
+            dueDate = date;
+        }
+        return date;
     }
 
     /**
@@ -402,7 +446,30 @@ public class Assignment {
      * @see Date
      */
     public Date getScoreEntryDate() {
-        return scoreEntryDate;
+        Date date = scoreEntryDate;
+        if (date == null && scoreEntryDateString != null) {
+            date = AssignmentDates.toDate(scoreEntryEpochDay, scoreEntryDateString);
+            scoreEntryDate = date;
+        }
+        return date;
+    }
+
+    /**
+     * @return Due date of the {@code Assignment}, or null if it has none or it is not formatted like
+     * {@code "yyyy-MM-dd"}
+     * @see LocalDate
+     */
+    public LocalDate getDueLocalDate() {
+        return AssignmentDates.toLocalDate(dueEpochDay);
+    }
+
+    /**
+     * @return Date that the {@code Assignment} was graded, or null if it has none or it is not formatted like
+     * {@code "yyyy-MM-dd"}
+     * @see LocalDate
+     */
+    public LocalDate getScoreEntryLocalDate() {
+        return AssignmentDates.toLocalDate(scoreEntryEpochDay);
     }
 
     /**
@@ -0,0 +1,102 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Daniel Sage
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.dnsge.powerschoolapi.detail;
+
+/**
+ * A change to one assignment, found by an {@link AssignmentChangeFeed}
+ *
+ * @author Daniel Sage
+ * @version 1.0
+ */
+public final class AssignmentChange {
+
+    /**
+     * Kind of change
+     */
+    public enum Type {
+        /** The assignment appeared */
+        ADDED,
+        /** The assignment received its first score */
+        SCORED,
+        /** The score of an already scored assignment changed or was cleared */
+        RESCORED,
+        /** One of the assignment's flags changed */
+        FLAG_CHANGED,
+        /** Something other than the score and flags changed, like the name, total points, category or due date */
+        DETAILS_CHANGED,
+        /** The assignment disappeared */
+        REMOVED
+    }
+
+    private final Type type;
+    private final long sectionKey;
+    private final int assignmentId;
+    private final Assignment assignment;
+
+    AssignmentChange(Type type, long sectionKey, int assignmentId, Assignment assignment) {
+        this.type = type;
+        this.sectionKey = sectionKey;
+        this.assignmentId = assignmentId;
+        this.assignment = assignment;
+    }
+
+    /**
+     * @return A {@code String} formatted like {@code "{Type} {Assignment ID} in {Section Key as hex}"}
+     */
+    @Override
+    public String toString() {
+        return type + " " + assignmentId + " in " + Long.toHexString(sectionKey);
+    }
+
+    /**
+     * @return Kind of change
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return Fingerprint of the grade group the assignment was fetched for
+     * @see GradeGroup#getFingerprint()
+     */
+    public long getSectionKey() {
+        return sectionKey;
+    }
+
+    /**
+     * @return ID of the changed assignment
+     */
+    public int getAssignmentId() {
+        return assignmentId;
+    }
+
+    /**
+     * @return The assignment after the change, or null if it was removed
+     */
+    public Assignment getAssignment() {
+        return assignment;
+    }
+
+}
@@ -0,0 +1,243 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Daniel Sage
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.dnsge.powerschoolapi.detail;
+
+import org.dnsge.powerschoolapi.metrics.Counter;
+import org.dnsge.powerschoolapi.metrics.PowerschoolMetrics;
+import org.dnsge.powerschoolapi.util.Fingerprints;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Detects changes between fetches of assignments and publishes them as {@link AssignmentChange} events
+ * <p>
+ * For every section, keyed by a 64-bit fingerprint, the feed keeps a map from assignment id to fingerprints of the
+ * assignment's score, flags and other details, and of all three combined. Applying a new fetch only compares
+ * fingerprints, and only builds events for assignments whose combined fingerprint moved, so a change to any field
+ * produces an event. The first fetch applied for a section is recorded as a baseline without emitting events.
+ * <p>
+ * Subscribers receive events through a {@link SubmissionPublisher} with a bounded buffer per subscriber. Events for
+ * a subscriber whose buffer is full are dropped instead of blocking the fetching thread. Drops are counted by
+ * {@link #getDroppedCount()} and recorded as {@link Counter#CHANGE_EVENTS_DROPPED}, so a subscriber that can't lose
+ * events should keep up or resync from {@link #apply(long, Collection, boolean)}'s return value.
+ *
+ * @author Daniel Sage
+ * @version 1.0
+ * @see AssignmentSync#setChangeFeed(AssignmentChangeFeed)
+ */
+public final class AssignmentChangeFeed implements Flow.Publisher<AssignmentChange>, AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(AssignmentChangeFeed.class.getName());
+
+    private final SubmissionPublisher<AssignmentChange> publisher;
+    private final ConcurrentHashMap<Long, Map<Integer, Snapshot>> sections = new ConcurrentHashMap<>();
+    private final LongAdder dropped = new LongAdder();
+    private final PowerschoolMetrics metrics;
+
+    /**
+     * Creates an AssignmentChangeFeed that delivers on the common pool with the default buffer capacity
+     */
+    public AssignmentChangeFeed() {
+        this(ForkJoinPool.commonPool(), Flow.defaultBufferSize());
+    }
+
+    /**
+     * Creates an AssignmentChangeFeed
+     *
+     * @param executor          Executor delivering events to subscribers
+     * @param maxBufferCapacity Maximum number of undelivered events per subscriber
+     */
+    public AssignmentChangeFeed(Executor executor, int maxBufferCapacity) {
+        this(executor, maxBufferCapacity, PowerschoolMetrics.noop());
+    }
+
+    /**
+     * Creates an AssignmentChangeFeed that records dropped events
+     *
+     * @param executor          Executor delivering events to subscribers
+     * @param maxBufferCapacity Maximum number of undelivered events per subscriber
+     * @param metrics           Metrics to record dropped events to
+     */
+    public AssignmentChangeFeed(Executor executor, int maxBufferCapacity, PowerschoolMetrics metrics) {
+        this.publisher = new SubmissionPublisher<>(executor, maxBufferCapacity);
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super AssignmentChange> subscriber) {
+        publisher.subscribe(subscriber);
+    }
+
+    /**
+     * Compares a fetch of a section's assignments against the previous ones and publishes the changes
+     *
+     * @param sectionKey  Key of the section, usually {@link GradeGroup#getFingerprint()}
+     * @param assignments Assignments fetched
+     * @param complete    Whether the fetch covered the whole grading period, so that missing assignments were removed
+     * @return {@code List} of the changes found
+     */
+    public List<AssignmentChange> apply(long sectionKey, Collection<Assignment> assignments, boolean complete) {
+        boolean baseline = !sections.containsKey(sectionKey);
+        Map<Integer, Snapshot> known = sections.computeIfAbsent(sectionKey, k -> new HashMap<>());
+        List<AssignmentChange> changes = new ArrayList<>();
+
+        synchronized (known) {
+            Set<Integer> seen = complete ? new HashSet<>() : null;
+            for (Assignment assignment : assignments) {
+                if (assignment == null || assignment.getAssignmentId() == null) {
+                    continue;
+                }
+                int id = assignment.getAssignmentId();
+                if (seen != null) {
+                    seen.add(id);
+                }
+
+                Snapshot current = new Snapshot(assignment);
+                Snapshot previous = known.put(id, current);
+                if (baseline || (previous != null && previous.content == current.content)) {
+                    continue;
+                }
+
+                if (previous == null) {
+                    changes.add(new AssignmentChange(AssignmentChange.Type.ADDED, sectionKey, id, assignment));
+                    continue;
+                }
+                int typed = changes.size();
+                if (previous.score != current.score) {
+                    AssignmentChange.Type type = previous.scored || !current.scored
+                            ? AssignmentChange.Type.RESCORED : AssignmentChange.Type.SCORED;
+                    changes.add(new AssignmentChange(type, sectionKey, id, assignment));
+                }
+                if (previous.flags != current.flags) {
+                    changes.add(new AssignmentChange(AssignmentChange.Type.FLAG_CHANGED, sectionKey, id, assignment));
+                }
+                if (previous.details != current.details || changes.size() == typed) {
+                    changes.add(new AssignmentChange(AssignmentChange.Type.DETAILS_CHANGED, sectionKey, id,
+                            assignment));
+                }
+            }
+
+            if (seen != null && !baseline) {
+                for (Iterator<Integer> it = known.keySet().iterator(); it.hasNext(); ) {
+                    Integer id = it.next();
+                    if (!seen.contains(id)) {
+                        it.remove();
+                        changes.add(new AssignmentChange(AssignmentChange.Type.REMOVED, sectionKey, id, null));
+                    }
+                }
+            }
+        }
+
+        for (AssignmentChange change : changes) {
+            publisher.offer(change, (subscriber, item) -> {
+                dropped.increment();
+                metrics.increment(Counter.CHANGE_EVENTS_DROPPED);
+                LOGGER.fine(() -> "Dropped assignment change " + item + " for a slow subscriber");
+                return false;
+            });
+        }
+        return changes;
+    }
+
+    /**
+     * Forgets everything known about a section, so the next fetch becomes a new baseline
+     *
+     * @param sectionKey Key of the section
+     */
+    public void forget(long sectionKey) {
+        sections.remove(sectionKey);
+    }
+
+    /**
+     * @return Number of events dropped because a subscriber's buffer was full
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * @return Number of sections with known assignments
+     */
+    public int getSectionCount() {
+        return sections.size();
+    }
+
+    /**
+     * Completes every subscriber and stops accepting new events
+     */
+    @Override
+    public void close() {
+        publisher.close();
+    }
+
+    /**
+     * Fingerprints of one assignment
+     */
+    private static final class Snapshot {
+
+        private final long content;
+        private final long score;
+        private final short flags;
+        private final long details;
+        private final boolean scored;
+
+        private Snapshot(Assignment assignment) {
+            long scoreHash = Fingerprints.start();
+            scoreHash = Fingerprints.mix(scoreHash, assignment.getScoredPoints());
+            scoreHash = Fingerprints.mix(scoreHash, assignment.getScorePercent());
+            scoreHash = Fingerprints.mix(scoreHash, assignment.getScoreLetterGrade());
+            this.score = scoreHash;
+            this.flags = assignment.getFlagContainer() == null ? 0 : assignment.getFlagContainer().toPackedFlags();
+            this.scored = assignment.getScoredPoints() != null || assignment.getScorePercent() != null;
+
+            long detailsHash = Fingerprints.start();
+            detailsHash = Fingerprints.mix(detailsHash, assignment.getName());
+            detailsHash = Fingerprints.mix(detailsHash, assignment.getTotalPoints());
+            detailsHash = Fingerprints.mix(detailsHash, assignment.getCategory());
+            detailsHash = Fingerprints.mix(detailsHash, assignment.getDueDateString());
+            this.details = detailsHash;
+
+            // The score entry date only moves the combined fingerprint, as it usually changes along with the score
+            long hash = Fingerprints.mix(score, (int) flags);
+            hash = Fingerprints.mix(hash, details);
+            this.content = Fingerprints.mix(hash, assignment.getScoreEntryDateString());
+        }
+    }
+
+}
@@ -0,0 +1,132 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Daniel Sage
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.dnsge.powerschoolapi.detail;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Parses the {@code yyyy-MM-dd} dates used by assignments into epoch days
+ * <p>
+ * The same few dates repeat across every assignment of a term, so parsed values are kept in a small shared cache
+ * that is emptied whenever it fills up.
+ *
+ * @author Daniel Sage
+ * @version 1.0
+ */
+final class AssignmentDates {
+
+    /** Epoch day of a missing or unparseable date */
+    static final int NO_DATE = Integer.MIN_VALUE;
+
+    private static final int MAX_CACHED = 1024;
+    private static final ConcurrentHashMap<String, Integer> CACHE = new ConcurrentHashMap<>();
+
+    private AssignmentDates() {
+    }
+
+    /**
+     * @param date Date formatted like {@code yyyy-MM-dd}
+     * @return Epoch day of the date, or {@link #NO_DATE} if it is null or in another format
+     */
+    static int epochDay(String date) {
+        if (date == null) {
+            return NO_DATE;
+        }
+        Integer cached = CACHE.get(date);
+        if (cached != null) {
+            return cached;
+        }
+        int epochDay = parse(date);
+        if (CACHE.size() >= MAX_CACHED) {
+            CACHE.clear();
+        }
+        CACHE.put(date, epochDay);
+        return epochDay;
+    }
+
+    private static int parse(String date) {
+        if (date.length() != 10 || date.charAt(4) != '-' || date.charAt(7) != '-') {
+            return NO_DATE;
+        }
+        int year = digits(date, 0, 4);
+        int month = digits(date, 5, 7);
+        int day = digits(date, 8, 10);
+        if (year < 0 || month < 0 || day < 0) {
+            return NO_DATE;
+        }
+        try {
+            return (int) LocalDate.of(year, month, day).toEpochDay();
+        } catch (DateTimeException e) {
+            return NO_DATE;
+        }
+    }
+
+    private static int digits(String s, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = s.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * @param epochDay Epoch day, or {@link #NO_DATE}
+     * @return LocalDate of the epoch day, or null
+     */
+    static LocalDate toLocalDate(int epochDay) {
+        return epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    /**
+     * Converts a date to a legacy {@code Date} at midnight in the default time zone
+     *
+     * @param epochDay Epoch day of the date, or {@link #NO_DATE}
+     * @param date     Original date String, parsed leniently when it has no epoch day
+     * @return Date of the date, or null if it cannot be parsed
+     */
+    static Date toDate(int epochDay, String date) {
+        if (epochDay != NO_DATE) {
+            return Date.from(LocalDate.ofEpochDay(epochDay).atStartOfDay(ZoneId.systemDefault()).toInstant());
+        } else if (date == null) {
+            return null;
+        }
+        try {
+            return new SimpleDateFormat("yyyy-MM-dd").parse(date);
+        } catch (ParseException e) {
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,195 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Daniel Sage
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.dnsge.powerschoolapi.detail;
+
+import org.dnsge.powerschoolapi.user.User;
+import org.dnsge.powerschoolapi.util.FairShareExecutor;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Fetches the assignments of every course of a user in parallel
+ * <p>
+ * Each course needs a scores page request and a lookup request that depend on each other, so fetching the courses
+ * one after another takes the sum of their latencies. This fetcher runs the courses at the same time, bounded by a
+ * global limit shared by every user and a per-user limit, with users taking turns fairly. Results come back in the
+ * order the courses finish, so a fetch takes about as long as its slowest course.
+ *
+ * @author Daniel Sage
+ * @version 1.0
+ * @see FairShareExecutor
+ */
+public final class AssignmentFetcher {
+
+    private final FairShareExecutor<User> scheduler;
+
+    /**
+     * Creates an AssignmentFetcher
+     *
+     * @param executor     Executor that runs the fetches, which should have at least {@code globalLimit} threads
+     * @param globalLimit  Maximum number of courses fetched at once over every user
+     * @param perUserLimit Maximum number of courses fetched at once for a single user
+     */
+    public AssignmentFetcher(Executor executor, int globalLimit, int perUserLimit) {
+        this.scheduler = new FairShareExecutor<>(executor, globalLimit, perUserLimit);
+    }
+
+    /**
+     * Starts fetching the assignments of every course of a user
+     *
+     * @param user          User to fetch for
+     * @param gradingPeriod {@code GradingPeriod} which to get the assignments from
+     * @return {@code Fetch} that yields each course as it finishes
+     */
+    public Fetch fetch(User user, GradingPeriod gradingPeriod) {
+        return fetch(user, user.getCourses(), gradingPeriod);
+    }
+
+    /**
+     * Starts fetching the assignments of some courses of a user
+     *
+     * @param user          User that the courses belong to
+     * @param courses       Courses to fetch
+     * @param gradingPeriod {@code GradingPeriod} which to get the assignments from
+     * @return {@code Fetch} that yields each course as it finishes
+     */
+    public Fetch fetch(User user, List<Course> courses, GradingPeriod gradingPeriod) {
+        Fetch fetch = new Fetch(courses.size());
+        for (Course course : courses) {
+            CompletableFuture<List<Assignment>> future =
+                    scheduler.submit(user, () -> course.fetchAssignments(gradingPeriod));
+            fetch.futures.add(future);
+            future.whenComplete((assignments, error) -> fetch.completed.add(error == null
+                    ? CourseAssignments.success(course, assignments)
+                    : CourseAssignments.failure(course, unwrap(error))));
+        }
+        return fetch;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    /**
+     * @return Scheduler that shares the fetches between users
+     */
+    public FairShareExecutor<User> getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Running fetch of a user's courses that yields each course as it finishes
+     * <p>
+     * {@link #next()} blocks until another course finishes. Courses that failed are yielded too, with their error,
+     * so one failing course doesn't hide the others.
+     */
+    public static final class Fetch implements Iterator<CourseAssignments> {
+
+        private final int total;
+        private final List<CompletableFuture<List<Assignment>>> futures;
+        private final LinkedBlockingQueue<CourseAssignments> completed = new LinkedBlockingQueue<>();
+        private final List<CourseAssignments> failures = new ArrayList<>();
+        private int yielded;
+
+        private Fetch(int total) {
+            this.total = total;
+            this.futures = new ArrayList<>(total);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return yielded < total;
+        }
+
+        /**
+         * Waits for the next course to finish
+         *
+         * @return The course and its assignments or error
+         * @throws CancellationException if the waiting thread is interrupted, which stays flagged
+         */
+        @Override
+        public CourseAssignments next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            CourseAssignments next;
+            try {
+                next = completed.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Interrupted while waiting for assignments");
+            }
+            yielded++;
+            if (!next.isSuccess()) {
+                failures.add(next);
+            }
+            return next;
+        }
+
+        /**
+         * Waits for every remaining course
+         *
+         * @return The remaining courses in the order they finished
+         */
+        public List<CourseAssignments> drain() {
+            List<CourseAssignments> remaining = new ArrayList<>(total - yielded);
+            while (hasNext()) {
+                remaining.add(next());
+            }
+            return remaining;
+        }
+
+        /**
+         * Cancels the courses that haven't started yet. They are yielded with a {@code CancellationException}.
+         */
+        public void cancel() {
+            futures.forEach(future -> future.cancel(false));
+        }
+
+        /**
+         * @return Number of courses being fetched
+         */
+        public int size() {
+            return total;
+        }
+
+        /**
+         * @return Courses yielded so far that failed
+         */
+        public List<CourseAssignments> getFailures() {
+            return new ArrayList<>(failures);
+        }
+
+    }
+
+}
@@ -24,10 +24,12 @@
 
 package org.dnsge.powerschoolapi.detail;
 
-import java.util.Objects;
-
 /**
  * Class that holds information about an {@code Assignment's} flags
+ * <p>
+ * Each of the six flags is null, false or true, so there are only 729 distinct containers. {@link #of} and
+ * {@link #fromPackedFlags(short)} return shared canonical instances, and every container carries its flags packed
+ * into a short so that comparisons and flag filters are integer operations.
  *
  * @author Daniel Sage
  * @version 1.0.3
@@ -35,16 +37,51 @@ import java.util.Objects;
  */
 public class AssignmentFlagContainer {
 
+    /**
+     * A single assignment flag and its position in the packed flags
+     */
+    public enum Flag {
+        COLLECTED, LATE, MISSING, EXEMPT, ABSENT, INCOMPLETE;
+
+        private int shift() {
+            return ordinal() * 2;
+        }
+
+        /**
+         * @param packed Packed flags
+         * @return Value of this flag in the packed flags
+         */
+        public Boolean get(short packed) {
+            return unpack(packed, shift());
+        }
+    }
+
+    private static final int NULL = 0;
+    private static final int FALSE = 1;
+    private static final int TRUE = 2;
+    private static final AssignmentFlagContainer[] CANONICAL = new AssignmentFlagContainer[1 << 12];
+
+    static {
+        for (int code = 0; code < CANONICAL.length; code++) {
+            if (isValid(code)) {
+                CANONICAL[code] = new AssignmentFlagContainer((short) code);
+            }
+        }
+    }
+
     private final Boolean isCollected;
     private final Boolean isLate;
     private final Boolean isMissing;
     private final Boolean isExempt;
     private final Boolean isAbsent;
     private final Boolean isIncomplete;
+    private final short packed;
 
 
     /**
      * Basic constructor for an AssignmentFlagContainer
+     * <p>
+     * Prefer {@link #of(Boolean, Boolean, Boolean, Boolean, Boolean, Boolean)}, which returns a shared instance
      *
      * @param isCollected  Collected flag
      * @param isLate       Late flag
@@ -55,37 +92,143 @@ public class AssignmentFlagContainer {
      */
     public AssignmentFlagContainer(Boolean isCollected, Boolean isLate, Boolean isMissing,
                                    Boolean isExempt, Boolean isAbsent, Boolean isIncomplete) {
-        this.isCollected = isCollected;
-        this.isLate = isLate;
-        this.isMissing = isMissing;
-        this.isExempt = isExempt;
-        this.isAbsent = isAbsent;
-        this.isIncomplete = isIncomplete;
+        this(pack(isCollected, isLate, isMissing, isExempt, isAbsent, isIncomplete));
+    }
+
+    private AssignmentFlagContainer(short packed) {
+        this.packed = packed;
+        this.isCollected = Flag.COLLECTED.get(packed);
+        this.isLate = Flag.LATE.get(packed);
+        this.isMissing = Flag.MISSING.get(packed);
+        this.isExempt = Flag.EXEMPT.get(packed);
+        this.isAbsent = Flag.ABSENT.get(packed);
+        this.isIncomplete = Flag.INCOMPLETE.get(packed);
     }
 
     /**
-     * @return a new {@code AssignmentFlagContainer} that is empty
+     * Gets the shared AssignmentFlagContainer for a set of flags
+     *
+     * @param isCollected  Collected flag
+     * @param isLate       Late flag
+     * @param isMissing    Missing flag
+     * @param isExempt     Exempt flag
+     * @param isAbsent     Absent flag
+     * @param isIncomplete Incomplete flag
+     * @return Canonical AssignmentFlagContainer with the flags
+     */
+    public static AssignmentFlagContainer of(Boolean isCollected, Boolean isLate, Boolean isMissing,
+                                             Boolean isExempt, Boolean isAbsent, Boolean isIncomplete) {
+        return CANONICAL[pack(isCollected, isLate, isMissing, isExempt, isAbsent, isIncomplete)];
+    }
+
+    /**
+     * @return the shared {@code AssignmentFlagContainer} that is empty
      */
     public static AssignmentFlagContainer empty() {
-        return new AssignmentFlagContainer(null, null, null, null, null, null);
+        return CANONICAL[0];
+    }
+
+    /**
+     * Packs the flags into a short, two bits per flag in declaration order: {@code 0} for null, {@code 1} for false
+     * and {@code 2} for true
+     *
+     * @return Packed flags
+     * @see #fromPackedFlags(short)
+     */
+    public short toPackedFlags() {
+        return packed;
+    }
+
+    /**
+     * Gets the shared AssignmentFlagContainer for flags created by {@link #toPackedFlags()}
+     *
+     * @param packed Packed flags
+     * @return Canonical AssignmentFlagContainer with the flags
+     * @throws IllegalArgumentException if the packed flags are not valid
+     */
+    public static AssignmentFlagContainer fromPackedFlags(short packed) {
+        AssignmentFlagContainer container = (packed & ~0xFFF) == 0 ? CANONICAL[packed] : null;
+        if (container == null) {
+            throw new IllegalArgumentException("Invalid packed flags: " + Integer.toBinaryString(packed & 0xFFFF));
+        }
+        return container;
+    }
+
+    /**
+     * Creates a mask matching packed flags where any of the given flags is true
+     *
+     * @param flags Flags to match
+     * @return Mask for {@link #hasAny(short, int)}
+     */
+    public static int trueMask(Flag... flags) {
+        int mask = 0;
+        for (Flag flag : flags) {
+            mask |= TRUE << flag.shift();
+        }
+        return mask;
+    }
+
+    /**
+     * @param packed Packed flags
+     * @param mask   Mask from {@link #trueMask(Flag...)}
+     * @return Whether any of the masked flags is true
+     */
+    public static boolean hasAny(short packed, int mask) {
+        return (packed & mask) != 0;
+    }
+
+    /**
+     * @param mask Mask from {@link #trueMask(Flag...)}
+     * @return Whether any of the masked flags is true on this container
+     */
+    public boolean hasAny(int mask) {
+        return hasAny(packed, mask);
+    }
+
+    private static short pack(Boolean isCollected, Boolean isLate, Boolean isMissing,
+                              Boolean isExempt, Boolean isAbsent, Boolean isIncomplete) {
+        return (short) (pack(isCollected)
+                | pack(isLate) << 2
+                | pack(isMissing) << 4
+                | pack(isExempt) << 6
+                | pack(isAbsent) << 8
+                | pack(isIncomplete) << 10);
+    }
+
+    private static int pack(Boolean flag) {
+        return flag == null ? NULL : flag ? TRUE : FALSE;
+    }
+
+    private static Boolean unpack(short packed, int shift) {
+        switch ((packed >> shift) & 0b11) {
+            case FALSE:
+                return false;
+            case TRUE:
+                return true;
+            default:
+                return null;
+        }
+    }
+
+    private static boolean isValid(int code) {
+        for (int shift = 0; shift < 12; shift += 2) {
+            if (((code >> shift) & 0b11) == 0b11) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
-        AssignmentFlagContainer that = (AssignmentFlagContainer) o;
-        return Objects.equals(isCollected, that.isCollected) &&
-                Objects.equals(isLate, that.isLate) &&
-                Objects.equals(isMissing, that.isMissing) &&
-                Objects.equals(isExempt, that.isExempt) &&
-                Objects.equals(isAbsent, that.isAbsent) &&
-                Objects.equals(isIncomplete, that.isIncomplete);
+        return packed == ((AssignmentFlagContainer) o).packed;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(isCollected, isLate, isMissing, isExempt, isAbsent, isIncomplete);
+        return packed;
     }
 
     /**
@@ -0,0 +1,117 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Daniel Sage
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.dnsge.powerschoolapi.detail;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Background lookup of a {@code GradeGroup}'s assignments that a later interactive lookup can take over
+ * <p>
+ * The lookup runs exactly once, either on the prefetch executor or, if it hasn't started there yet, on the thread
+ * that asks for the assignments. That way interactive callers never wait behind queued background work. Each
+ * prefetch is tagged with the refresh of the user it was started after, and a later refresh makes it stale.
+ *
+ * @author Daniel Sage
+ * @version 1.0
+ */
+final class AssignmentPrefetch implements Runnable {
+
+    private final Course course;
+    private final GradeGroup gradeGroup;
+    private final Instant epoch;
+    private final AtomicBoolean claimed = new AtomicBoolean();
+    private final CompletableFuture<List<Assignment>> result = new CompletableFuture<>();
+
+    AssignmentPrefetch(Course course, GradeGroup gradeGroup, Instant epoch) {
+        this.course = course;
+        this.gradeGroup = gradeGroup;
+        this.epoch = epoch;
+    }
+
+    /**
+     * @param currentEpoch When the user was last refreshed
+     * @return Whether the prefetch was started after the user's latest refresh
+     */
+    boolean isCurrent(Instant currentEpoch) {
+        return epoch.equals(currentEpoch);
+    }
+
+    /**
+     * Runs the lookup on the prefetch executor, unless it was already taken over or cancelled
+     */
+    @Override
+    public void run() {
+        if (!result.isDone() && claimed.compareAndSet(false, true)) {
+            fetch("prefetchAssignments");
+        }
+    }
+
+    /**
+     * Gets the prefetched assignments, running the lookup on this thread if it hasn't started yet and waiting for
+     * it otherwise
+     *
+     * @return Prefetched assignments, or null if the prefetch failed or was cancelled
+     */
+    List<Assignment> join() {
+        if (!result.isDone() && claimed.compareAndSet(false, true)) {
+            fetch("getAssignments");
+        }
+        try {
+            return result.join();
+        } catch (CancellationException | CompletionException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Drops the prefetch. A lookup that is already running finishes, but its result is discarded.
+     */
+    void cancel() {
+        claimed.set(true);
+        result.cancel(false);
+    }
+
+    private void fetch(String operationName) {
+        try {
+            result.complete(course.lookupAssignments(gradeGroup, null, operationName, Course::readAssignments,
+                    List::size));
+        } catch (Throwable t) {
+            result.completeExceptionally(t);
+        }
+    }
+
+    /**
+     * @return Future of the prefetched assignments
+     */
+    CompletableFuture<List<Assignment>> getResult() {
+        return result;
+    }
+
+}
@@ -0,0 +1,231 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Daniel Sage
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.dnsge.powerschoolapi.detail;
+
+import org.dnsge.powerschoolapi.util.Pair;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Keeps the assignments of one course section up to date with small, incremental lookups
+ * <p>
+ * The first sync, and every sync once the full sync interval has passed, looks up the whole grading period and
+ * replaces the cached assignments. Every other sync only looks up the window from shortly before the last sync to
+ * the end of the grading period, and merges the results into the cache by assignment id. Assignments removed from
+ * Powerschool, or edited outside of the window, are picked up by the next full sync.
+ *
+ * @author Daniel Sage
+ * @version 1.0
+ * @see Course#getAssignments(GradingPeriod)
+ */
+public final class AssignmentSync {
+
+    private static final Logger LOGGER = Logger.getLogger(AssignmentSync.class.getName());
+
+    /** Default distance the incremental window reaches back before the last sync */
+    public static final Duration DEFAULT_LOOKBACK = Duration.ofDays(14);
+    /** Default time between full syncs */
+    public static final Duration DEFAULT_FULL_SYNC_INTERVAL = Duration.ofDays(1);
+
+    private final Course course;
+    private final int periodId;
+    private final Duration lookback;
+    private final Duration fullSyncInterval;
+    private final Clock clock;
+
+    private final LinkedHashMap<Integer, Assignment> byId = new LinkedHashMap<>();
+    private List<Assignment> unidentified = Collections.emptyList();
+    private volatile List<Assignment> assignments = Collections.emptyList();
+    private volatile Instant lastSync;
+    private volatile Instant lastFullSync;
+    private volatile AssignmentChangeFeed changeFeed;
+
+    /**
+     * Creates an AssignmentSync with the default lookback and full sync interval
+     *
+     * @param course        Course to sync
+     * @param gradingPeriod GradingPeriod to sync
+     */
+    public AssignmentSync(Course course, GradingPeriod gradingPeriod) {
+        this(course, gradingPeriod, DEFAULT_LOOKBACK, DEFAULT_FULL_SYNC_INTERVAL);
+    }
+
+    /**
+     * Creates an AssignmentSync
+     *
+     * @param course           Course to sync
+     * @param gradingPeriod    GradingPeriod to sync
+     * @param lookback         Distance the incremental window reaches back before the last sync
+     * @param fullSyncInterval Time between full syncs
+     */
+    public AssignmentSync(Course course, GradingPeriod gradingPeriod, Duration lookback, Duration fullSyncInterval) {
+        this(course, gradingPeriod.periodId(), lookback, fullSyncInterval, Clock.systemDefaultZone());
+    }
+
+    AssignmentSync(Course course, int periodId, Duration lookback, Duration fullSyncInterval, Clock clock) {
+        if (lookback.isNegative() || fullSyncInterval.isNegative()) {
+            throw new IllegalArgumentException("Durations must not be negative");
+        }
+        this.course = course;
+        this.periodId = periodId;
+        this.lookback = lookback;
+        this.fullSyncInterval = fullSyncInterval;
+        this.clock = clock;
+    }
+
+    /**
+     * Syncs the assignments, fully if the full sync interval has passed and incrementally otherwise
+     *
+     * @return {@code List} of every known assignment, or null if a request failed
+     */
+    public synchronized List<Assignment> sync() {
+        Instant full = lastFullSync;
+        boolean isFull = full == null || !clock.instant().isBefore(full.plus(fullSyncInterval));
+        return sync(isFull);
+    }
+
+    /**
+     * Syncs the assignments of the whole grading period, replacing every cached assignment
+     *
+     * @return {@code List} of every known assignment, or null if a request failed
+     */
+    public synchronized List<Assignment> fullSync() {
+        return sync(true);
+    }
+
+    private List<Assignment> sync(boolean isFull) {
+        GradeGroup gradeGroup = course.getGradeGroup(periodId);
+        if (gradeGroup == null || gradeGroup.isEmpty()) {
+            return assignments;
+        }
+
+        Instant now = clock.instant();
+        Pair<LocalDate, LocalDate> window = isFull ? null : window(gradeGroup);
+        LOGGER.fine(() -> (isFull ? "Fully syncing" : "Incrementally syncing") + " assignments of "
+                + course.getCourseName() + (window == null ? "" : " from " + window.getL()));
+
+        List<Assignment> fetched = course.lookupAssignments(gradeGroup, window,
+                isFull ? "fullAssignmentSync" : "assignmentSync", Course::readAssignments, List::size);
+        if (fetched == null) {
+            return null;
+        }
+
+        AssignmentChangeFeed feed = changeFeed;
+        if (feed != null) {
+            feed.apply(gradeGroup.getFingerprint(), fetched, isFull);
+        }
+
+        if (isFull) {
+            byId.clear();
+            unidentified = new ArrayList<>();
+        }
+        for (Assignment assignment : fetched) {
+            if (assignment == null) {
+                continue;
+            }
+            if (assignment.getAssignmentId() != null) {
+                byId.put(assignment.getAssignmentId(), assignment);
+            } else if (isFull) {
+                unidentified.add(assignment);
+            }
+        }
+
+        List<Assignment> merged = new ArrayList<>(byId.size() + unidentified.size());
+        merged.addAll(byId.values());
+        merged.addAll(unidentified);
+        assignments = Collections.unmodifiableList(merged);
+        lastSync = now;
+        if (isFull) {
+            lastFullSync = now;
+        }
+        return assignments;
+    }
+
+    private Pair<LocalDate, LocalDate> window(GradeGroup gradeGroup) {
+        LocalDate periodStart = gradeGroup.getStartDate();
+        LocalDate periodEnd = gradeGroup.getEndDate();
+        LocalDate start = LocalDate.ofInstant(lastSync.minus(lookback), clock.getZone());
+        if (start.isBefore(periodStart)) {
+            start = periodStart;
+        }
+        if (start.isAfter(periodEnd)) {
+            start = periodEnd;
+        }
+        return new Pair<>(start, periodEnd);
+    }
+
+    /**
+     * Sets the feed that every fetch of this sync is applied to
+     *
+     * @param changeFeed AssignmentChangeFeed to publish changes to, or null for none
+     */
+    public void setChangeFeed(AssignmentChangeFeed changeFeed) {
+        this.changeFeed = changeFeed;
+    }
+
+    /**
+     * @return {@code List} of every known assignment as of the last sync
+     */
+    public List<Assignment> getAssignments() {
+        return assignments;
+    }
+
+    /**
+     * @return Time of the last successful sync, or null if never synced
+     */
+    public Instant getLastSync() {
+        return lastSync;
+    }
+
+    /**
+     * @return Time of the last successful full sync, or null if never synced
+     */
+    public Instant getLastFullSync() {
+        return lastFullSync;
+    }
+
+    /**
+     * @return Distance the incremental window reaches back before the last sync
+     */
+    public Duration getLookback() {
+        return lookback;
+    }
+
+    /**
+     * @return Time between full syncs
+     */
+    public Duration getFullSyncInterval() {
+        return fullSyncInterval;
+    }
+
+}
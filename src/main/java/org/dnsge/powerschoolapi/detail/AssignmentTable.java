@@ -0,0 +1,541 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Daniel Sage
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.dnsge.powerschoolapi.detail;
+
+import org.dnsge.powerschoolapi.metrics.PowerschoolMetrics;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Column-oriented, read-only table of assignments
+ * <p>
+ * Numbers are kept in primitive arrays with a null bitmap per column, dates as epoch days, names, categories and
+ * letter grades as codes into a shared dictionary, and the six flags packed into one {@code short} per row. Rows are
+ * exposed as {@link Assignment} views that read straight from the columns.
+ *
+ * @author Daniel Sage
+ * @version 1.0
+ * @see Assignment
+ */
+public final class AssignmentTable {
+
+    private static final int NO_STRING = -1;
+
+    private final int size;
+    private final String[] dictionary;
+    private final int[] names;
+    private final int[] categories;
+    private final int[] letterGrades;
+    private final int[] assignmentIds;
+    private final int[] totalPoints;
+    private final int[] scoredPoints;
+    private final float[] scorePercents;
+    private final int[] dueDates;
+    private final int[] scoreEntryDates;
+    private final short[] flags;
+    private final BitSet nullAssignmentIds;
+    private final BitSet nullTotalPoints;
+    private final BitSet nullScoredPoints;
+    private final BitSet nullScorePercents;
+    private final BitSet nullDueDates;
+    private final BitSet nullScoreEntryDates;
+    private final BitSet rawDates;
+    private final BitSet missingDetails;
+
+    private AssignmentTable(Builder b) {
+        this.size = b.size;
+        this.dictionary = b.dictionary.toArray(new String[0]);
+        this.names = Arrays.copyOf(b.names, size);
+        this.categories = Arrays.copyOf(b.categories, size);
+        this.letterGrades = Arrays.copyOf(b.letterGrades, size);
+        this.assignmentIds = Arrays.copyOf(b.assignmentIds, size);
+        this.totalPoints = Arrays.copyOf(b.totalPoints, size);
+        this.scoredPoints = Arrays.copyOf(b.scoredPoints, size);
+        this.scorePercents = Arrays.copyOf(b.scorePercents, size);
+        this.dueDates = Arrays.copyOf(b.dueDates, size);
+        this.scoreEntryDates = Arrays.copyOf(b.scoreEntryDates, size);
+        this.flags = Arrays.copyOf(b.flags, size);
+        this.nullAssignmentIds = (BitSet) b.nullAssignmentIds.clone();
+        this.nullTotalPoints = (BitSet) b.nullTotalPoints.clone();
+        this.nullScoredPoints = (BitSet) b.nullScoredPoints.clone();
+        this.nullScorePercents = (BitSet) b.nullScorePercents.clone();
+        this.nullDueDates = (BitSet) b.nullDueDates.clone();
+        this.nullScoreEntryDates = (BitSet) b.nullScoreEntryDates.clone();
+        this.rawDates = (BitSet) b.rawDates.clone();
+        this.missingDetails = (BitSet) b.missingDetails.clone();
+    }
+
+    /**
+     * Builds a table straight from the JSON returned by an assignment lookup, without creating Assignment objects
+     *
+     * @param lookupJson JSONArray of assignment objects
+     * @return New AssignmentTable
+     */
+    public static AssignmentTable fromJson(JSONArray lookupJson) {
+        return fromJson(lookupJson, PowerschoolMetrics.noop());
+    }
+
+    /**
+     * Builds a table straight from the JSON returned by an assignment lookup, recording string pool lookups
+     *
+     * @param lookupJson JSONArray of assignment objects
+     * @param metrics    Metrics to record string pool lookups to
+     * @return New AssignmentTable
+     */
+    public static AssignmentTable fromJson(JSONArray lookupJson, PowerschoolMetrics metrics) {
+        return new Builder().addAll(lookupJson, metrics).build();
+    }
+
+    /**
+     * Builds a table from existing assignments
+     *
+     * @param assignments Assignments to copy
+     * @return New AssignmentTable
+     */
+    public static AssignmentTable of(Collection<Assignment> assignments) {
+        Builder builder = new Builder();
+        for (Assignment a : assignments) {
+            builder.add(a);
+        }
+        return builder.build();
+    }
+
+    /**
+     * @return Number of rows
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param row Row index
+     * @return An {@code Assignment} view of the row
+     */
+    public Assignment get(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of bounds for size " + size);
+        }
+        return new Row(row);
+    }
+
+    /**
+     * @return A read-only {@code List} of {@code Assignment} views over every row
+     */
+    public List<Assignment> asList() {
+        return new RowList();
+    }
+
+    /**
+     * @param row Row index
+     * @return Whether the row has a score percent
+     */
+    public boolean hasScorePercent(int row) {
+        return !nullScorePercents.get(row);
+    }
+
+    /**
+     * @param row Row index
+     * @return Score percent of the row, or {@code NaN} if it has none
+     */
+    public float scorePercent(int row) {
+        return nullScorePercents.get(row) ? Float.NaN : scorePercents[row];
+    }
+
+    /**
+     * @param row Row index
+     * @return Packed flags of the row
+     * @see AssignmentFlagContainer#toPackedFlags()
+     */
+    public short packedFlags(int row) {
+        return flags[row];
+    }
+
+    /**
+     * Finds the rows where any of the given flags is true, for example every missing or late assignment
+     *
+     * @param flags Flags to match
+     * @return BitSet of the matching rows
+     */
+    public BitSet rowsWithAnyFlag(AssignmentFlagContainer.Flag... flags) {
+        int mask = AssignmentFlagContainer.trueMask(flags);
+        BitSet rows = new BitSet(size);
+        for (int row = 0; row < size; row++) {
+            if (AssignmentFlagContainer.hasAny(this.flags[row], mask)) {
+                rows.set(row);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * @param row Row index
+     * @return Due date of the row as an epoch day, or {@link Integer#MIN_VALUE} if it has none
+     */
+    public int dueEpochDay(int row) {
+        return nullDueDates.get(row) || rawDates.get(2 * row) ? AssignmentDates.NO_DATE : dueDates[row];
+    }
+
+    /**
+     * @param row Row index
+     * @return Score entry date of the row as an epoch day, or {@link Integer#MIN_VALUE} if it has none
+     */
+    public int scoreEntryEpochDay(int row) {
+        return nullScoreEntryDates.get(row) || rawDates.get(2 * row + 1) ? AssignmentDates.NO_DATE
+                : scoreEntryDates[row];
+    }
+
+    /**
+     * Averages the score percent of every scored row
+     *
+     * @return Average score percent, or {@code NaN} if no row is scored
+     */
+    public double averageScorePercent() {
+        double total = 0;
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            if (!nullScorePercents.get(row)) {
+                total += scorePercents[row];
+                count++;
+            }
+        }
+        return count == 0 ? Double.NaN : total / count;
+    }
+
+    private String string(int code) {
+        return code == NO_STRING ? null : dictionary[code];
+    }
+
+    private String dateString(int[] column, BitSet nulls, int row, int rawBit) {
+        if (nulls.get(row)) {
+            return null;
+        } else if (rawDates.get(rawBit)) {
+            return dictionary[column[row]];
+        }
+        return LocalDate.ofEpochDay(column[row]).toString();
+    }
+
+    private Date date(int[] column, BitSet nulls, int row, int rawBit) {
+        if (nulls.get(row)) {
+            return null;
+        } else if (rawDates.get(rawBit)) {
+            return AssignmentDates.toDate(AssignmentDates.NO_DATE, dictionary[column[row]]);
+        }
+        return AssignmentDates.toDate(column[row], null);
+    }
+
+    /**
+     * Assignment view of one row, reading every value from the table's columns
+     */
+    private final class Row extends Assignment {
+
+        private final int row;
+
+        private Row(int row) {
+            this.row = row;
+        }
+
+        @Override
+        public String getName() {
+            return string(names[row]);
+        }
+
+        @Override
+        public Integer getAssignmentId() {
+            return nullAssignmentIds.get(row) ? null : assignmentIds[row];
+        }
+
+        @Override
+        public Integer getTotalPoints() {
+            return nullTotalPoints.get(row) ? null : totalPoints[row];
+        }
+
+        @Override
+        public Integer getScoredPoints() {
+            return nullScoredPoints.get(row) ? null : scoredPoints[row];
+        }
+
+        @Override
+        public Float getScorePercent() {
+            return nullScorePercents.get(row) ? null : scorePercents[row];
+        }
+
+        @Override
+        public String getScoreLetterGrade() {
+            return string(letterGrades[row]);
+        }
+
+        @Override
+        public String getCategory() {
+            return string(categories[row]);
+        }
+
+        @Override
+        public String getDueDateString() {
+            return dateString(dueDates, nullDueDates, row, 2 * row);
+        }
+
+        @Override
+        public String getScoreEntryDateString() {
+            return dateString(scoreEntryDates, nullScoreEntryDates, row, 2 * row + 1);
+        }
+
+        @Override
+        public Date getDueDate() {
+            return date(dueDates, nullDueDates, row, 2 * row);
+        }
+
+        @Override
+        public Date getScoreEntryDate() {
+            return date(scoreEntryDates, nullScoreEntryDates, row, 2 * row + 1);
+        }
+
+        @Override
+        public LocalDate getDueLocalDate() {
+            return AssignmentDates.toLocalDate(dueEpochDay(row));
+        }
+
+        @Override
+        public LocalDate getScoreEntryLocalDate() {
+            return AssignmentDates.toLocalDate(scoreEntryEpochDay(row));
+        }
+
+        @Override
+        public boolean isMissingDetails() {
+            return missingDetails.get(row);
+        }
+
+        @Override
+        public AssignmentFlagContainer getFlagContainer() {
+            return AssignmentFlagContainer.fromPackedFlags(flags[row]);
+        }
+    }
+
+    private final class RowList extends AbstractList<Assignment> implements RandomAccess {
+
+        @Override
+        public Assignment get(int index) {
+            return AssignmentTable.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * Builder that appends rows to growable columns
+     *
+     * @author Daniel Sage
+     * @version 1.0
+     */
+    public static final class Builder {
+
+        private final List<String> dictionary = new ArrayList<>();
+        private final Map<String, Integer> codes = new HashMap<>();
+        private int size;
+        private int[] names = new int[16];
+        private int[] categories = new int[16];
+        private int[] letterGrades = new int[16];
+        private int[] assignmentIds = new int[16];
+        private int[] totalPoints = new int[16];
+        private int[] scoredPoints = new int[16];
+        private float[] scorePercents = new float[16];
+        private int[] dueDates = new int[16];
+        private int[] scoreEntryDates = new int[16];
+        private short[] flags = new short[16];
+        private final BitSet nullAssignmentIds = new BitSet();
+        private final BitSet nullTotalPoints = new BitSet();
+        private final BitSet nullScoredPoints = new BitSet();
+        private final BitSet nullScorePercents = new BitSet();
+        private final BitSet nullDueDates = new BitSet();
+        private final BitSet nullScoreEntryDates = new BitSet();
+        private final BitSet rawDates = new BitSet();
+        private final BitSet missingDetails = new BitSet();
+
+        /**
+         * Appends one assignment from the JSON returned by an assignment lookup; objects that cannot be parsed are
+         * skipped
+         *
+         * @param assignmentJSON JSONObject of one assignment
+         * @return This Builder
+         */
+        public Builder add(JSONObject assignmentJSON) {
+            return add(assignmentJSON, PowerschoolMetrics.noop());
+        }
+
+        /**
+         * Appends one assignment from the JSON returned by an assignment lookup, recording string pool lookups
+         *
+         * @param assignmentJSON JSONObject of one assignment
+         * @param metrics        Metrics to record string pool lookups to
+         * @return This Builder
+         */
+        public Builder add(JSONObject assignmentJSON, PowerschoolMetrics metrics) {
+            Assignment.parseJson(assignmentJSON, metrics, this::addRow);
+            return this;
+        }
+
+        /**
+         * Appends every assignment of an assignment lookup
+         *
+         * @param lookupJson JSONArray of assignment objects
+         * @return This Builder
+         */
+        public Builder addAll(JSONArray lookupJson) {
+            return addAll(lookupJson, PowerschoolMetrics.noop());
+        }
+
+        /**
+         * Appends every assignment of an assignment lookup, recording string pool lookups
+         *
+         * @param lookupJson JSONArray of assignment objects
+         * @param metrics    Metrics to record string pool lookups to
+         * @return This Builder
+         */
+        public Builder addAll(JSONArray lookupJson, PowerschoolMetrics metrics) {
+            for (int i = 0; i < lookupJson.length(); i++) {
+                add(lookupJson.getJSONObject(i), metrics);
+            }
+            return this;
+        }
+
+        /**
+         * Appends a copy of an assignment
+         *
+         * @param assignment Assignment to copy
+         * @return This Builder
+         */
+        public Builder add(Assignment assignment) {
+            return addRow(assignment.getName(), assignment.getAssignmentId(), assignment.getTotalPoints(),
+                    assignment.getScoredPoints(), assignment.getScorePercent(), assignment.getScoreLetterGrade(),
+                    assignment.getCategory(), assignment.getDueDateString(), assignment.getScoreEntryDateString(),
+                    assignment.getFlagContainer(), assignment.isMissingDetails());
+        }
+
+        private Builder addRow(String name, Integer assignmentId, Integer totalPoints, Integer scoredPoints,
+                               Float scorePercent, String scoreLetterGrade, String category, String dueDateString,
+                               String scoreEntryDateString, AssignmentFlagContainer flagContainer,
+                               boolean isMissingDetails) {
+            if (size == names.length) {
+                grow();
+            }
+            int row = size++;
+            names[row] = code(name);
+            categories[row] = code(category);
+            letterGrades[row] = code(scoreLetterGrade);
+            setInt(this.assignmentIds, nullAssignmentIds, row, assignmentId);
+            setInt(this.totalPoints, nullTotalPoints, row, totalPoints);
+            setInt(this.scoredPoints, nullScoredPoints, row, scoredPoints);
+            if (scorePercent == null) {
+                nullScorePercents.set(row);
+            } else {
+                scorePercents[row] = scorePercent;
+            }
+            setDate(dueDates, nullDueDates, row, 2 * row, dueDateString);
+            setDate(scoreEntryDates, nullScoreEntryDates, row, 2 * row + 1, scoreEntryDateString);
+            flags[row] = flagContainer == null ? 0 : flagContainer.toPackedFlags();
+            missingDetails.set(row, isMissingDetails);
+            return this;
+        }
+
+        private int code(String value) {
+            if (value == null) {
+                return NO_STRING;
+            }
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = dictionary.size();
+                dictionary.add(value);
+                codes.put(value, code);
+            }
+            return code;
+        }
+
+        private static void setInt(int[] column, BitSet nulls, int row, Integer value) {
+            if (value == null) {
+                nulls.set(row);
+            } else {
+                column[row] = value;
+            }
+        }
+
+        private void setDate(int[] column, BitSet nulls, int row, int rawBit, String value) {
+            if (value == null) {
+                nulls.set(row);
+                return;
+            }
+            int epochDay = AssignmentDates.epochDay(value);
+            if (epochDay == AssignmentDates.NO_DATE) {
+                // Keep dates in other formats verbatim
+                column[row] = code(value);
+                rawDates.set(rawBit);
+            } else {
+                column[row] = epochDay;
+            }
+        }
+
+        private void grow() {
+            int capacity = names.length * 2;
+            names = Arrays.copyOf(names, capacity);
+            categories = Arrays.copyOf(categories, capacity);
+            letterGrades = Arrays.copyOf(letterGrades, capacity);
+            assignmentIds = Arrays.copyOf(assignmentIds, capacity);
+            totalPoints = Arrays.copyOf(totalPoints, capacity);
+            scoredPoints = Arrays.copyOf(scoredPoints, capacity);
+            scorePercents = Arrays.copyOf(scorePercents, capacity);
+            dueDates = Arrays.copyOf(dueDates, capacity);
+            scoreEntryDates = Arrays.copyOf(scoreEntryDates, capacity);
+            flags = Arrays.copyOf(flags, capacity);
+        }
+
+        /**
+         * @return Number of rows added so far
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * @return New AssignmentTable with the rows added so far
+         */
+        public AssignmentTable build() {
+            return new AssignmentTable(this);
+        }
+    }
+
+}
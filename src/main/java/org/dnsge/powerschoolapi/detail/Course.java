@@ -24,8 +24,18 @@
 
 package org.dnsge.powerschoolapi.detail;
 
+import org.dnsge.powerschoolapi.metrics.Counter;
+import org.dnsge.powerschoolapi.metrics.Latency;
+import org.dnsge.powerschoolapi.metrics.PowerschoolMetrics;
+import org.dnsge.powerschoolapi.metrics.jfr.ClientOperationEvent;
+import org.dnsge.powerschoolapi.metrics.jfr.HttpRequestEvent;
+import org.dnsge.powerschoolapi.metrics.jfr.ParseEvent;
 import org.dnsge.powerschoolapi.user.User;
 import org.dnsge.powerschoolapi.util.ColumnMode;
+import org.dnsge.powerschoolapi.util.ColumnPlan;
+import org.dnsge.powerschoolapi.util.Fingerprints;
+import org.dnsge.powerschoolapi.util.HeaderDialects;
+import org.dnsge.powerschoolapi.util.StringPool;
 import org.dnsge.powerschoolapi.util.Pair;
 import org.dnsge.powerschoolapi.util.ViewSpecification;
 import org.json.JSONArray;
@@ -34,13 +44,18 @@ import org.jsoup.Connection;
 import org.jsoup.HttpStatusException;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
 
 import java.io.IOException;
+import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Objects;
-import java.util.function.Supplier;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
+import java.util.function.ToIntFunction;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
@@ -58,13 +73,12 @@ public class Course {
     private static final Pattern teacherNamePattern =
             Pattern.compile("^Details about (.*?), (.*?)$", Pattern.MULTILINE | Pattern.CASE_INSENSITIVE);
     private final User user;
-    private final List<GradeGroup> courseGrades;
-    private String courseName;
-    private String courseFrequency;
-    private String teacherFirstName;
-    private String teacherLastName;
-    private String teacherEmail;
-    private String room;
+    private volatile List<GradeGroup> courseGrades;
+    private Element pendingRow;
+    private ColumnPlan pendingPlan;
+    private String rowId = "";
+    private volatile long fingerprint;
+    private volatile SectionInfo section;
 
     /**
      * Basic constructor for a Course
@@ -80,12 +94,8 @@ public class Course {
      */
     public Course(String courseName, String courseFrequency, String teacherFirstName, String teacherLastName,
                   String teacherEmail, String room, List<GradeGroup> courseGrades, User user) {
-        this.courseName = courseName;
-        this.courseFrequency = courseFrequency;
-        this.teacherFirstName = teacherFirstName;
-        this.teacherLastName = teacherLastName;
-        this.teacherEmail = teacherEmail;
-        this.room = room;
+        this.section = new SectionInfo(courseFrequency, courseName, teacherFirstName, teacherLastName, teacherEmail,
+                room);
         this.courseGrades = courseGrades;
         this.user = user;
     }
@@ -97,6 +107,7 @@ public class Course {
      * @param user         User which the Course belongs to
      */
     public Course(List<GradeGroup> courseGrades, User user) {
+        this.section = new SectionInfo(null, null, null, null, null, null);
         this.courseGrades = courseGrades;
         this.user = user;
     }
@@ -110,104 +121,300 @@ public class Course {
      * @return The new course
      */
     public static Course generateCourseFromElement(Element genElement, User user, ViewSpecification viewSpecification) {
-        String courseFrequency = genElement.child(0).html().trim();
-        String courseName;
-        String room = "";
+        return generateCourseFromElement(genElement, user, viewSpecification, false);
+    }
+
+    /**
+     * Generates a new {@code Course} from a {@code <tr>} HTML element, optionally leaving the grade cells to be
+     * parsed the first time the grades are read
+     *
+     * @param genElement        {@code <tr>} element to construct a class from
+     * @param user              User that the new course belongs to
+     * @param viewSpecification {@code ViewSpecification} that should be used to make the Course
+     * @param lazyGrades        Whether to defer parsing the grade cells
+     * @return The new course
+     */
+    static Course generateCourseFromElement(Element genElement, User user, ViewSpecification viewSpecification,
+                                            boolean lazyGrades) {
+        ColumnPlan plan = viewSpecification.getColumnPlan();
+        int courseIndex = plan.indexOf(ColumnMode.COURSE);
 
         // Create the basic course with a reference to the ArrayList that will later be populated
-        ArrayList<GradeGroup> courseGrades = new ArrayList<>();
+        ArrayList<GradeGroup> courseGrades = lazyGrades ? null : new ArrayList<>(plan.gradingColumnCount());
         Course returnCourse = new Course(courseGrades, user);
+        if (lazyGrades) {
+            returnCourse.pendingRow = genElement;
+            returnCourse.pendingPlan = plan;
+        }
 
-        int columnCounter = 0;
+        String courseFrequency = "";
+        Element courseDescriptorElement = null;
+        String schoolId = null;
+
+        // Walk the cells once, handing each one to whatever its column needs
+        LOGGER.finest("Parsing Course grades");
+        int column = 0;
+        for (int i = 0; i < genElement.childNodeSize(); i++) {
+            Node node = genElement.childNode(i);
+            if (!(node instanceof Element)) {
+                continue;
+            }
+            Element cell = (Element) node;
 
-        HashMap<ColumnMode, Element> allElements = new HashMap<>();
+            if (column == 0) {
+                courseFrequency = cell.html().trim();
+            }
+            if (column == courseIndex) {
+                courseDescriptorElement = cell;
+            }
 
-        for (Element courseDetailElement : genElement.children()) {
-            allElements.put(viewSpecification.getAt(columnCounter), courseDetailElement);
-            columnCounter++;
+            int periodId = plan.periodIdAt(column);
+            if (schoolId == null && periodId != HeaderDialects.UNKNOWN_PERIOD) {
+                schoolId = scoresParameter(cell, "schoolid=");
+            }
+            if (courseGrades != null && periodId != HeaderDialects.UNKNOWN_PERIOD) {
+                GradeGroup gradeGroup = parseGradeCell(cell, returnCourse, periodId);
+                if (gradeGroup != null) {
+                    courseGrades.add(gradeGroup);
+                }
+            }
+            column++;
         }
 
         LOGGER.finest("Populating basic Course information");
-        // Populate information from the 'Course' header
-        Element courseDescriptorElement = allElements.get(ColumnMode.COURSE);
+        // Populate information from the 'Course' header, unless another row of the same section already did
+        long version = descriptorVersion(courseFrequency, courseDescriptorElement);
+        long sectionKey = sectionKey(user == null ? null : user.getClient().getPsInstallURL(), schoolId, version);
+        SectionCatalog catalog = user == null ? null : user.getClient().getSectionCatalog();
+        PowerschoolMetrics metrics = user == null ? PowerschoolMetrics.noop() : user.getClient().getMetrics();
+        if (catalog == null) {
+            returnCourse.section = parseSection(sectionKey, courseFrequency, courseDescriptorElement, metrics);
+        } else {
+            String frequency = courseFrequency;
+            Element descriptor = courseDescriptorElement;
+            returnCourse.section = catalog.resolve(sectionKey,
+                    () -> parseSection(sectionKey, frequency, descriptor, metrics), user.getUsername());
+        }
+        returnCourse.rowId = genElement.id();
 
-        courseName = safeCall(
-                () -> courseDescriptorElement.childNode(0).toString()
-                        .replace("&nbsp;", "")
-                        .replace("&amp;", "&")
-                        .trim(),
-                "unknown_course");
+        return returnCourse;
+    }
+
+    /**
+     * Parses the grading period cells of a course row
+     *
+     * @param row    {@code <tr>} element of the course
+     * @param plan   Column plan of the home page table
+     * @param course Course that the grades belong to
+     * @return The course's grades
+     */
+    private static List<GradeGroup> parseGrades(Element row, ColumnPlan plan, Course course) {
+        ArrayList<GradeGroup> grades = new ArrayList<>(plan.gradingColumnCount());
+        int column = 0;
+        for (int i = 0; i < row.childNodeSize(); i++) {
+            Node node = row.childNode(i);
+            if (!(node instanceof Element)) {
+                continue;
+            }
+            int periodId = plan.periodIdAt(column++);
+            if (periodId != HeaderDialects.UNKNOWN_PERIOD) {
+                GradeGroup gradeGroup = parseGradeCell((Element) node, course, periodId);
+                if (gradeGroup != null) {
+                    grades.add(gradeGroup);
+                }
+            }
+        }
+        return grades;
+    }
+
+    /**
+     * Reads a query parameter from the scores link of a grade cell
+     *
+     * @param cell {@code <td>} element of a grading period
+     * @param name Name of the parameter, including the trailing {@code '='}
+     * @return Value of the parameter, or null if the cell has no scores link or the link doesn't have it
+     */
+    private static String scoresParameter(Element cell, String name) {
+        Element link = firstChildElement(cell);
+        if (link == null) {
+            return null;
+        }
+        String href = link.attr("href");
+        int at = href.indexOf(name);
+        if (at < 0) {
+            return null;
+        }
+        int end = href.indexOf('&', at);
+        return href.substring(at + name.length(), end < 0 ? href.length() : end);
+    }
+
+    /**
+     * Gets the key of a row's section in a {@code SectionCatalog}
+     * <p>
+     * The {@code frn} of a scores link and the row id both identify one student's enrollment, so classmates would
+     * never share a key. The home page has no section id either, so a section is identified by what every enrolled
+     * student sees: the install, the school of the scores links, the expression and the course, teacher and room
+     * of the descriptor. Every field of a {@link SectionInfo} is part of the key, so rows that share a key always
+     * parse to equal sections.
+     *
+     * @param installUrl Install URL of the user's client, may be null
+     * @param schoolId   School id from the row's scores links, may be null
+     * @param version    Fingerprint of the row's expression and descriptor
+     * @return Key of the section
+     */
+    private static long sectionKey(String installUrl, String schoolId, long version) {
+        long key = Fingerprints.mix(Fingerprints.start(), installUrl);
+        key = Fingerprints.mix(key, schoolId);
+        return Fingerprints.mix(key, version);
+    }
+
+    /**
+     * Fingerprints the cells describing a course's section from their text and link attributes, without
+     * serializing them, so that rows of the same section share a catalog key and an edited section gets a new one
+     *
+     * @param courseFrequency Frequency of the row
+     * @param descriptor      {@code <td>} element describing the course, may be null
+     * @return Fingerprint of the descriptor
+     */
+    private static long descriptorVersion(String courseFrequency, Element descriptor) {
+        long version = Fingerprints.mix(Fingerprints.start(), courseFrequency);
+        if (descriptor == null) {
+            return version;
+        }
+        for (int i = 0; i < descriptor.childNodeSize(); i++) {
+            Node node = descriptor.childNode(i);
+            if (node instanceof TextNode) {
+                version = Fingerprints.mix(version, ((TextNode) node).getWholeText());
+            } else if (node instanceof Element) {
+                Element e = (Element) node;
+                version = Fingerprints.mix(version, e.tagName());
+                version = Fingerprints.mix(version, e.attr("href"));
+                version = Fingerprints.mix(version, e.attr("title"));
+                version = Fingerprints.mix(version, e.text());
+            }
+        }
+        return version;
+    }
 
+    /**
+     * Parses the cell describing a course's section
+     *
+     * @param key             Key of the section
+     * @param courseFrequency Frequency of the row
+     * @param descriptor      {@code <td>} element describing the course, may be null
+     * @param metrics         Metrics to record string pool lookups to
+     * @return The new SectionInfo
+     */
+    private static SectionInfo parseSection(long key, String courseFrequency, Element descriptor,
+                                            PowerschoolMetrics metrics) {
+        String courseName = "unknown_course";
+        String room = "";
         String teacherDesc = "";
         String teacherEmail = "";
-        String teacherFirstName;
-        String teacherLastName;
-
-        // Check over each element to find the best choice for values (default to empty string)
-        for (Element e : courseDescriptorElement.children()) {
-            if (e.tagName().equals("a") && e.hasAttr("href")) {
-                String href = e.attr("href");
-                if (href.startsWith("mailto:")) { // Teacher email button
-                    teacherEmail = safeCall(() -> href.substring(7), "");
-                } else if (href.startsWith("teacherinfo.html")) { // Teacher desc
-                    teacherDesc = safeCall(() -> e.attr("title"), "");
+        String teacherFirstName = "";
+        String teacherLastName = "";
+
+        if (descriptor != null) {
+            if (descriptor.childNodeSize() > 0) {
+                courseName = descriptor.childNode(0).toString()
+                        .replace("&nbsp;", "")
+                        .replace("&amp;", "&")
+                        .trim();
+            }
+
+            // Check over each element to find the best choice for values (default to empty string)
+            int childElements = 0;
+            for (int i = 0; i < descriptor.childNodeSize(); i++) {
+                if (!(descriptor.childNode(i) instanceof Element)) {
+                    continue;
+                }
+                Element e = (Element) descriptor.childNode(i);
+                childElements++;
+                if (e.tagName().equals("a") && e.hasAttr("href")) {
+                    String href = e.attr("href");
+                    if (href.startsWith("mailto:")) { // Teacher email button
+                        teacherEmail = href.substring(7);
+                    } else if (href.startsWith("teacherinfo.html")) { // Teacher desc
+                        teacherDesc = e.attr("title");
+                    }
                 }
             }
-        }
 
-        try {
             // Get the last element and pray it's the room number
             // Remove the prefixing "- Rm: "
-            room = courseDescriptorElement.childNode(courseDescriptorElement.children().size() - 1)
-                    .toString()
-                    .replace("&nbsp;", "").substring(5);
-        } catch (IndexOutOfBoundsException ignored) { }
-
-        if (teacherDesc.equals("")) { // we couldn't find anything earlier
-            teacherLastName = "";
-            teacherFirstName = "";
-        } else { // We found something, try to match using the regex
-            Matcher teacherMatcher = teacherNamePattern.matcher(teacherDesc);
-            teacherMatcher.matches();
-            // safely call just to be sure
-            teacherLastName = safeCall(() -> teacherMatcher.group(1), "");
-            teacherFirstName = safeCall(() -> teacherMatcher.group(2), "");
+            int roomNode = childElements - 1;
+            if (roomNode >= 0 && roomNode < descriptor.childNodeSize()) {
+                String roomText = descriptor.childNode(roomNode).toString().replace("&nbsp;", "");
+                if (roomText.length() >= 5) {
+                    room = roomText.substring(5);
+                }
+            }
         }
 
-        LOGGER.finest("Parsing Course grades");
-        ArrayList<Pair<Element, ColumnMode>> gradingElements = ColumnMode.allGradingElements(allElements);
-
-        for (Pair<Element, ColumnMode> gradeElementPair : gradingElements) {
-            Element gradeElement;
-            try {
-                gradeElement = gradeElementPair.getL().child(0);
-            } catch (IndexOutOfBoundsException e) { // Sometimes instead of [ i ] it's just blank
-                courseGrades.add(GradeGroup.emptyGrade(returnCourse, gradeElementPair.getR()));
-                continue;
-            }
-            // If there is no grade yet
-            try {
-                if (gradeElement.childNode(0).toString().equals("[ i ]")) {
-                    courseGrades.add(GradeGroup.noGrade(returnCourse, gradeElementPair.getR()));
-                } else {
-                    String letterGrade = gradeElement.childNode(0).toString();
-                    float numberGrade = Float.parseFloat(gradeElement.childNode(2).toString());
-                    courseGrades.add(new GradeGroup(returnCourse.getUser().documentFetcher(), letterGrade, numberGrade,
-                            gradeElementPair.getR(), gradeElement.attr("href")));
-                }
-            } catch (Throwable ignored) {
+        if (!teacherDesc.equals("")) { // We found something, try to match using the regex
+            Matcher teacherMatcher = teacherNamePattern.matcher(teacherDesc);
+            if (teacherMatcher.matches()) {
+                teacherLastName = teacherMatcher.group(1);
+                teacherFirstName = teacherMatcher.group(2);
             }
         }
 
-        // Update the course with the data found above
-        returnCourse.courseFrequency = courseFrequency;
-        returnCourse.courseName = courseName;
-        returnCourse.teacherFirstName = teacherFirstName;
-        returnCourse.teacherLastName = teacherLastName;
-        returnCourse.teacherEmail = teacherEmail;
-        returnCourse.room = room;
+        StringPool strings = StringPool.shared();
+        return new SectionInfo(key, strings.intern(courseFrequency, metrics), strings.intern(courseName, metrics),
+                strings.intern(teacherFirstName, metrics), strings.intern(teacherLastName, metrics),
+                strings.intern(teacherEmail, metrics), strings.intern(room, metrics));
+    }
+
+    /**
+     * Parses a grading period cell of a course row
+     *
+     * @param cell         {@code <td>} element holding the grade
+     * @param course       Course that the grade belongs to
+     * @param periodId     Period id of the cell
+     * @return The new GradeGroup, or null if the cell couldn't be understood
+     */
+    private static GradeGroup parseGradeCell(Element cell, Course course, int periodId) {
+        Element gradeElement = firstChildElement(cell);
+        if (gradeElement == null) { // Sometimes instead of [ i ] it's just blank
+            return GradeGroup.emptyGrade(course, periodId);
+        }
+        if (gradeElement.childNodeSize() == 0) {
+            return null;
+        }
 
-        return returnCourse;
+        String letterGrade = gradeElement.childNode(0).toString();
+        if (letterGrade.equals("[ i ]")) { // If there is no grade yet
+            return GradeGroup.noGrade(course, periodId);
+        }
+        if (gradeElement.childNodeSize() < 3) {
+            return null;
+        }
+
+        float numberGrade;
+        try {
+            numberGrade = Float.parseFloat(gradeElement.childNode(2).toString());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        User user = course.getUser();
+        return new GradeGroup(user.documentFetcher(), StringPool.shared().intern(letterGrade,
+                user.getClient().getMetrics()), numberGrade, periodId, gradeElement.attr("href"));
+    }
+
+    /**
+     * Finds the first child of an element that is itself an element, without copying the children
+     *
+     * @param element Element to look in
+     * @return First child element, or null if there is none
+     */
+    private static Element firstChildElement(Element element) {
+        for (int i = 0; i < element.childNodeSize(); i++) {
+            Node node = element.childNode(i);
+            if (node instanceof Element) {
+                return (Element) node;
+            }
+        }
+        return null;
     }
 
     /**
@@ -219,13 +426,28 @@ public class Course {
      * @see GradeGroup
      */
     public GradeGroup getGradeGroup(GradingPeriod gradingPeriod) {
-        for (GradeGroup gg : courseGrades) {
+        for (GradeGroup gg : getCourseGrades()) {
             if (gg.getGradingPeriod() == gradingPeriod)
                 return gg;
         }
         return null;
     }
 
+    /**
+     * Gets the {@code GradeGroup} object for this Course during any grading period registered in
+     * {@link HeaderDialects}, such as a trimester
+     *
+     * @param periodId Period id of the grading period
+     * @return GradeGroup found, or null
+     */
+    public GradeGroup getGradeGroup(int periodId) {
+        for (GradeGroup gg : getCourseGrades()) {
+            if (gg.getPeriodId() == periodId)
+                return gg;
+        }
+        return null;
+    }
+
     /**
      * Checks whether the {@code GradeGroup} object is unused or null
      *
@@ -270,13 +492,222 @@ public class Course {
             return new ArrayList<>();
         }
 
+        List<Assignment> prefetched = takePrefetched(gradeGroup);
+        if (prefetched != null) {
+            return prefetched;
+        }
+        return lookupAssignments(gradeGroup, null, "getAssignments", Course::readAssignments, List::size);
+    }
+
+    /**
+     * Gets all assignments for this Course, throwing instead of returning null if a request failed
+     *
+     * @param gradingPeriod {@code GradingPeriod} which to get the assignments from
+     * @return {@code List} of assignments found
+     * @throws IOException if the section couldn't be found or the lookup request failed
+     * @see #getAssignments(GradingPeriod)
+     */
+    public List<Assignment> fetchAssignments(GradingPeriod gradingPeriod) throws IOException {
+        GradeGroup gradeGroup = getGradeGroup(gradingPeriod);
+
+        if (gradeGroup == null || gradeGroup.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Assignment> prefetched = takePrefetched(gradeGroup);
+        if (prefetched != null) {
+            return prefetched;
+        }
+        return lookupAssignmentsOrThrow(gradeGroup, null, "fetchAssignments", Course::readAssignments, List::size);
+    }
+
+    /**
+     * Starts looking up the assignments of one of this Course's grade groups in the background
+     * <p>
+     * The next {@link #getAssignments(GradingPeriod)} or {@link #getAssignmentTable(GradingPeriod)} for the grade
+     * group uses the result, waiting for the lookup if it is running or running it on the calling thread if it
+     * hasn't started yet. A newer prefetch of the same grade group cancels the older one, and refreshing the user
+     * makes the prefetch stale so that it is discarded instead of used.
+     *
+     * @param gradeGroup Non-empty grade group of this Course
+     * @param executor   Executor to run the lookup on
+     * @return Future of the prefetched assignments, completing with null if a request failed. Cancelling it drops
+     * the prefetch.
+     */
+    public CompletableFuture<List<Assignment>> prefetchAssignments(GradeGroup gradeGroup, Executor executor) {
+        boolean owned = false;
+        for (GradeGroup gg : getCourseGrades()) {
+            owned |= gg == gradeGroup;
+        }
+        if (!owned || gradeGroup.isEmpty()) {
+            throw new IllegalArgumentException("Grade group is empty or doesn't belong to this Course");
+        }
+
+        AssignmentPrefetch prefetch = new AssignmentPrefetch(this, gradeGroup, user.getConfig().getRefreshedAt());
+        AssignmentPrefetch previous = gradeGroup.swapPrefetch(prefetch);
+        if (previous != null) {
+            previous.cancel();
+        }
+        user.getClient().getMetrics().increment(Counter.PREFETCHES);
+        executor.execute(prefetch);
+        return prefetch.getResult();
+    }
+
+    /**
+     * Cancels the prefetches of every grade group of this Course
+     */
+    public void cancelPrefetches() {
+        for (GradeGroup gg : getCourseGrades()) {
+            AssignmentPrefetch prefetch = gg.takePrefetch();
+            if (prefetch != null) {
+                prefetch.cancel();
+            }
+        }
+    }
+
+    /**
+     * Takes the prefetched assignments of a grade group, if a usable prefetch is attached
+     * <p>
+     * A prefetch started before the user's latest refresh is cancelled and ignored.
+     *
+     * @param gradeGroup GradeGroup to take from
+     * @return Prefetched assignments, or null if there are none
+     */
+    private List<Assignment> takePrefetched(GradeGroup gradeGroup) {
+        AssignmentPrefetch prefetch = gradeGroup.takePrefetch();
+        if (prefetch == null) {
+            return null;
+        }
+        if (!prefetch.isCurrent(user.getConfig().getRefreshedAt())) {
+            prefetch.cancel();
+            return null;
+        }
+        List<Assignment> prefetched = prefetch.join();
+        if (prefetched != null) {
+            user.getClient().getMetrics().increment(Counter.PREFETCH_HITS);
+        }
+        return prefetched;
+    }
+
+    /**
+     * Gets all assignments for this Course as a columnar table, without creating an {@code Assignment} per row
+     *
+     * @param gradingPeriod {@code GradingPeriod} which to get the assignments from
+     * @return {@code AssignmentTable} of the assignments found, or null if a request failed
+     * @see AssignmentTable
+     */
+    public AssignmentTable getAssignmentTable(GradingPeriod gradingPeriod) {
+        GradeGroup gradeGroup = getGradeGroup(gradingPeriod);
+
+        if (gradeGroup == null || gradeGroup.isEmpty()) {
+            return new AssignmentTable.Builder().build();
+        }
+
+        List<Assignment> prefetched = takePrefetched(gradeGroup);
+        if (prefetched != null) {
+            return AssignmentTable.of(prefetched);
+        }
+        return lookupAssignments(gradeGroup, null, "getAssignmentTable", AssignmentTable::fromJson,
+                AssignmentTable::size);
+    }
+
+    static List<Assignment> readAssignments(JSONArray lookupJson, PowerschoolMetrics metrics) {
+        ArrayList<Assignment> rList = new ArrayList<>();
+        // Populate the return list with new Assignments
+        LOGGER.finest("Populating Assignment list from retrieved JSON data");
+        lookupJson.forEach(jsonObject -> rList.add(Assignment.generateFromJsonObject((JSONObject) jsonObject,
+                metrics)));
+        return rList;
+    }
+
+    /**
+     * Looks up the assignments of a {@code GradeGroup} as a client operation
+     *
+     * @param gradeGroup    Non-empty GradeGroup to look up
+     * @param window        First and last day to look up, or null for the whole grading period
+     * @param operationName Name of the operation for events
+     * @param reader        Function that reads the returned JSON
+     * @param counter       Function that counts the assignments read
+     * @param <T>           Type read from the JSON
+     * @return Assignments read, or null if a request failed
+     */
+    <T> T lookupAssignments(GradeGroup gradeGroup, Pair<LocalDate, LocalDate> window, String operationName,
+                            BiFunction<JSONArray, PowerschoolMetrics, T> reader, ToIntFunction<T> counter) {
+        try {
+            return lookupAssignmentsOrThrow(gradeGroup, window, operationName, reader, counter);
+        } catch (IOException e) { // Already logged
+            return null;
+        }
+    }
+
+    /**
+     * Looks up the assignments of a {@code GradeGroup} as a client operation, throwing if a request failed
+     *
+     * @param gradeGroup    Non-empty GradeGroup to look up
+     * @param window        First and last day to look up, or null for the whole grading period
+     * @param operationName Name of the operation for events
+     * @param reader        Function that reads the returned JSON
+     * @param counter       Function that counts the assignments read
+     * @param <T>           Type read from the JSON
+     * @return Assignments read
+     * @throws IOException if the section couldn't be found or the lookup request failed
+     */
+    <T> T lookupAssignmentsOrThrow(GradeGroup gradeGroup, Pair<LocalDate, LocalDate> window, String operationName,
+                                   BiFunction<JSONArray, PowerschoolMetrics, T> reader, ToIntFunction<T> counter)
+            throws IOException {
+        ClientOperationEvent operation = new ClientOperationEvent();
+        operation.begin();
+        boolean succeeded = false;
+        try {
+            T assignments = lookupAssignments(gradeGroup, window, reader, counter);
+            succeeded = true;
+            return assignments;
+        } finally {
+            operation.finish(user.getClient().getPsInstallURL(), operationName, succeeded);
+        }
+    }
+
+    /**
+     * Finds the section of a {@code GradeGroup} and looks up its assignments
+     *
+     * @param gradeGroup Non-empty GradeGroup to look up
+     * @param window     First and last day to look up, or null for the whole grading period
+     * @param reader     Function that reads the returned JSON
+     * @param counter    Function that counts the assignments read
+     * @param <T>        Type read from the JSON
+     * @return Assignments read
+     * @throws IOException if the section couldn't be found or the lookup request failed
+     */
+    private <T> T lookupAssignments(GradeGroup gradeGroup, Pair<LocalDate, LocalDate> window,
+                                    BiFunction<JSONArray, PowerschoolMetrics, T> reader, ToIntFunction<T> counter)
+            throws IOException {
+        PowerschoolMetrics metrics = user.getClient().getMetrics();
+        String installUrl = user.getClient().getPsInstallURL();
+
         // JSON post data with start, end dates and section ids
         // todo: save the assignment data
+        ClientOperationEvent sectionLookup = new ClientOperationEvent();
+        sectionLookup.begin();
+        long start = System.nanoTime();
         LOGGER.finest("Generating URL for Assignment data fetching from GradingPeriod");
-        JSONObject postData = gradeGroup.getJsonPostForAssignments();
+        JSONObject postData;
+        try {
+            postData = window == null ? gradeGroup.getJsonPostForAssignments()
+                    : gradeGroup.getJsonPostForAssignments(window.getL(), window.getR());
+        } catch (RuntimeException e) { // The scores page couldn't be fetched or changed its layout
+            sectionLookup.finish(installUrl, "sectionIdLookup", false);
+            LOGGER.log(Level.SEVERE, "There was a problem finding the section of a grade group", e);
+            throw new IOException("Could not find the section of " + gradeGroup, e);
+        }
+        metrics.recordSince(Latency.SCORES_PAGE, start);
+        sectionLookup.finish(installUrl, "sectionIdLookup", true);
 
+        HttpRequestEvent request = new HttpRequestEvent();
+        request.begin();
         try {
             LOGGER.fine("Performing HTTP request for Assignment JSON");
+            metrics.increment(Counter.REQUESTS);
+            start = System.nanoTime();
             Connection.Response assignmentResponse = Jsoup.connect(user.getClient().urlify("ws/xte/assignment/lookup"))
                     .timeout(2000)
                     .method(Connection.Method.POST)
@@ -285,24 +716,106 @@ public class Course {
                     .ignoreContentType(true)
                     .cookies(user.getAuth())
                     .execute();
+            int bytes = assignmentResponse.bodyAsBytes().length;
+            metrics.add(Counter.BYTES_RECEIVED, bytes);
+            metrics.recordSince(Latency.ASSIGNMENT_LOOKUP, start);
+            request.finish(installUrl, Latency.ASSIGNMENT_LOOKUP.name(), bytes, true);
 
-            ArrayList<Assignment> rList = new ArrayList<>();
-            // Populate the return list with new Assignments
-            LOGGER.finest("Populating Assignment list from retrieved JSON data");
-            (new JSONArray(assignmentResponse.body())).forEach(
-                    jsonObject -> rList.add(Assignment.generateFromJsonObject((JSONObject) jsonObject))
-            );
+            ParseEvent parse = new ParseEvent();
+            parse.begin();
+            start = System.nanoTime();
+            T assignments = reader.apply(new JSONArray(assignmentResponse.body()), metrics);
+            int count = counter.applyAsInt(assignments);
+            metrics.add(Counter.ASSIGNMENTS_PARSED, count);
+            metrics.recordSince(Latency.ASSIGNMENT_PARSE, start);
+            parse.finish(installUrl, "assignments", bytes, count);
 
-            return rList;
+            return assignments;
 
 
         } catch (HttpStatusException e) {
+            metrics.increment(Counter.REQUEST_FAILURES);
+            request.finish(installUrl, Latency.ASSIGNMENT_LOOKUP.name(), 0, false);
             LOGGER.log(Level.SEVERE, "There was a problem fetching assignments", e);
+            throw e;
         } catch (IOException e) {
+            metrics.increment(Counter.REQUEST_FAILURES);
+            request.finish(installUrl, Latency.ASSIGNMENT_LOOKUP.name(), 0, false);
             LOGGER.log(Level.SEVERE, "There was a problem performing an HTTP request", e);
+            throw e;
         }
+    }
 
-        return null;
+    /**
+     * Patches this Course to match a freshly parsed Course of the same row
+     * <p>
+     * Grade groups that did not change are kept, so caches attached to them, like their section id, survive. Only
+     * when a grade group changed, appeared or disappeared is a new grade list published in a single write.
+     *
+     * @param parsed Course parsed from the same home page row
+     * @return Whether anything changed
+     */
+    public boolean updateFrom(Course parsed) {
+        boolean changed = false;
+        SectionInfo current = section;
+        if (current != parsed.section && !current.equals(parsed.section)) {
+            SectionCatalog catalog = user == null ? null : user.getClient().getSectionCatalog();
+            // An edited section gets a new key, and parsing it already enrolled the user there
+            if (catalog != null && current.getKey() != parsed.section.getKey()) {
+                catalog.unenroll(current, user.getUsername());
+            }
+            section = parsed.section;
+            changed = true;
+        }
+
+        List<GradeGroup> grades = getCourseGrades();
+        List<GradeGroup> incoming = parsed.getCourseGrades();
+        ArrayList<GradeGroup> merged = new ArrayList<>(incoming.size());
+        boolean gradesChanged = grades.size() != incoming.size();
+        for (int i = 0; i < incoming.size(); i++) {
+            GradeGroup next = incoming.get(i);
+            GradeGroup kept = null;
+            for (GradeGroup gg : grades) {
+                if (gg.isSameGrade(next)) {
+                    kept = gg;
+                    break;
+                }
+            }
+            merged.add(kept == null ? next : kept);
+            gradesChanged |= kept == null || i >= grades.size() || grades.get(i) != kept;
+        }
+
+        if (gradesChanged) {
+            courseGrades = merged;
+            changed = true;
+        }
+        return changed;
+    }
+
+    /**
+     * Returns a stable 64-bit fingerprint of this Course, built from the install URL and the home page row id of
+     * the enrollment. Unlike {@link #objectIdentifier()} it does not change with grades, and unlike
+     * {@link #courseIdentifier()} it is wide enough to key cohort-wide caches. Courses without a row id fall back to
+     * their frequency, name, room and teacher email.
+     *
+     * @return Fingerprint of this Course, never 0
+     */
+    public long getFingerprint() {
+        long value = fingerprint;
+        if (value == 0L) {
+            value = Fingerprints.mix(Fingerprints.start(), user == null ? null : user.getClient().getPsInstallURL());
+            if (!rowId.isEmpty()) {
+                value = Fingerprints.mix(value, rowId);
+            } else {
+                value = Fingerprints.mix(value, getCourseFrequency());
+                value = Fingerprints.mix(value, getCourseName());
+                value = Fingerprints.mix(value, getRoom());
+                value = Fingerprints.mix(value, getTeacherEmail());
+            }
+            value = value == 0L ? 1L : value;
+            fingerprint = value;
+        }
+        return value;
     }
 
     public String courseIdentifier() {
@@ -318,7 +831,7 @@ public class Course {
      */
     @Override
     public String toString() {
-        return String.format("%s (%s.%s)", courseName, courseIdentifier(), objectIdentifier());
+        return String.format("%s (%s.%s)", getCourseName(), courseIdentifier(), objectIdentifier());
     }
 
     @Override
@@ -341,52 +854,81 @@ public class Course {
     }
 
     /**
+     * Gets the grades of this Course, parsing them first if the Course was created lazily
+     *
      * @return {@code Course} grades
      */
     public List<GradeGroup> getCourseGrades() {
-        return courseGrades;
+        List<GradeGroup> grades = courseGrades;
+        if (grades == null) {
+            synchronized (this) {
+                grades = courseGrades;
+                if (grades == null && pendingRow != null) {
+                    grades = parseGrades(pendingRow, pendingPlan, this);
+                    courseGrades = grades;
+                    pendingRow = null;
+                    pendingPlan = null;
+                }
+            }
+        }
+        return grades;
+    }
+
+    /**
+     * @return Shared description of this {@code Course}'s section
+     * @see SectionCatalog
+     */
+    public SectionInfo getSection() {
+        return section;
+    }
+
+    /**
+     * @return The id attribute of the home page row this {@code Course} was parsed from, or an empty String
+     */
+    public String getRowId() {
+        return rowId;
     }
 
     /**
      * @return {@code Course} frequency code
      */
     public String getCourseFrequency() {
-        return courseFrequency;
+        return section.getCourseFrequency();
     }
 
     /**
      * @return {@code Course} name
      */
     public String getCourseName() {
-        return courseName;
+        return section.getCourseName();
     }
 
     /**
      * @return {@code Course} room number (might not exist)
      */
     public String getRoom() {
-        return room;
+        return section.getRoom();
     }
 
     /**
      * @return {@code Course} teacher's email address
      */
     public String getTeacherEmail() {
-        return teacherEmail;
+        return section.getTeacherEmail();
     }
 
     /**
      * @return {@code Course} teacher's first name
      */
     public String getTeacherFirstName() {
-        return teacherFirstName;
+        return section.getTeacherFirstName();
     }
 
     /**
      * @return {@code Course} teacher's last name
      */
     public String getTeacherLastName() {
-        return teacherLastName;
+        return section.getTeacherLastName();
     }
 
     /**
@@ -397,29 +939,4 @@ public class Course {
         return user;
     }
 
-    /**
-     * Safely call a method, and if it fails, return a default value
-     *
-     * @param sup String supplier method
-     * @param def Default value
-     * @return Value retrieved
-     */
-    private static String safeCall(Supplier<String> sup, String def) {
-        try {
-            return sup.get();
-        } catch (Throwable e) {
-            return def;
-        }
-    }
-
-    /**
-     * Safely call a method, and if it fails, return an empty string
-     *
-     * @param sup String supplier method
-     * @return Value retrieved
-     */
-    private static String safeCall(Supplier<String> sup) {
-        return safeCall(sup, "");
-    }
-
 }
@@ -0,0 +1,100 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Daniel Sage
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.dnsge.powerschoolapi.detail;
+
+import java.util.List;
+
+/**
+ * Outcome of fetching the assignments of one {@code Course}, either the assignments or the error that stopped them
+ *
+ * @author Daniel Sage
+ * @version 1.0
+ * @see AssignmentFetcher
+ */
+public final class CourseAssignments {
+
+    private final Course course;
+    private final List<Assignment> assignments;
+    private final Throwable error;
+
+    private CourseAssignments(Course course, List<Assignment> assignments, Throwable error) {
+        this.course = course;
+        this.assignments = assignments;
+        this.error = error;
+    }
+
+    /**
+     * @param course      Course that was fetched
+     * @param assignments Assignments found
+     * @return The new CourseAssignments
+     */
+    static CourseAssignments success(Course course, List<Assignment> assignments) {
+        return new CourseAssignments(course, assignments, null);
+    }
+
+    /**
+     * @param course Course that was fetched
+     * @param error  Error that stopped the fetch
+     * @return The new CourseAssignments
+     */
+    static CourseAssignments failure(Course course, Throwable error) {
+        return new CourseAssignments(course, null, error);
+    }
+
+    /**
+     * @return Course that was fetched
+     */
+    public Course getCourse() {
+        return course;
+    }
+
+    /**
+     * @return Assignments found, or null if the fetch failed
+     */
+    public List<Assignment> getAssignments() {
+        return assignments;
+    }
+
+    /**
+     * @return Error that stopped the fetch, or null if it succeeded
+     */
+    public Throwable getError() {
+        return error;
+    }
+
+    /**
+     * @return Whether the assignments were fetched
+     */
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    @Override
+    public String toString() {
+        return isSuccess() ? String.format("%s: %d assignments", course, assignments.size())
+                : String.format("%s: failed (%s)", course, error);
+    }
+
+}
@@ -24,20 +24,26 @@
 
 package org.dnsge.powerschoolapi.detail;
 
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Objects;
 
 /**
  * Class for filtering / searching for courses in an ArrayList
  * by different attributes like name, frequency, or teacher last name
  * <p>
- * Allows the use of method chaining
+ * Allows the use of method chaining. Filters are only recorded when called, and are evaluated together in a single
+ * pass over a {@link CourseIndex} the first time results are requested.
  *
  * @author Daniel Sage
  * @version 1.0
  */
 public class CourseGetter {
-    private List<Course> currentCourses;
+    private final CourseIndex index;
+    private final List<Clause> clauses = new ArrayList<>();
+    private List<Course> results;
 
     /**
      * Creates the CourseGetter with a preliminary list of Courses
@@ -45,7 +51,16 @@ public class CourseGetter {
      * @param courses ArrayList to search through
      */
     public CourseGetter(List<Course> courses) {
-        this.currentCourses = List.copyOf(courses);
+        this(CourseIndex.of(courses));
+    }
+
+    /**
+     * Creates the CourseGetter over an existing index, which can be shared between CourseGetters
+     *
+     * @param index CourseIndex to search through
+     */
+    public CourseGetter(CourseIndex index) {
+        this.index = index;
     }
 
     /**
@@ -55,8 +70,7 @@ public class CourseGetter {
      * @return this CourseGetter with updated information
      */
     public CourseGetter limitByName(String name) {
-        currentCourses = currentCourses.stream().filter(c -> c.getCourseName().equals(name)).collect(Collectors.toList());
-        return this;
+        return where(CourseIndex.Field.NAME, name, true);
     }
 
     /**
@@ -66,8 +80,7 @@ public class CourseGetter {
      * @return this CourseGetter with updated information
      */
     public CourseGetter containsByName(String name) {
-        currentCourses = currentCourses.stream().filter(c -> c.getCourseName().contains(name)).collect(Collectors.toList());
-        return this;
+        return where(CourseIndex.Field.NAME, Objects.requireNonNull(name), false);
     }
 
     /**
@@ -77,8 +90,7 @@ public class CourseGetter {
      * @return this CourseGetter with updated information
      */
     public CourseGetter limitByFrequency(String courseFrequency) {
-        currentCourses = currentCourses.stream().filter(c -> c.getCourseFrequency().equals(courseFrequency)).collect(Collectors.toList());
-        return this;
+        return where(CourseIndex.Field.FREQUENCY, courseFrequency, true);
     }
 
     /**
@@ -88,9 +100,7 @@ public class CourseGetter {
      * @return this CourseGetter with updated information
      */
     public CourseGetter containsByFrequency(String courseFrequency) {
-        currentCourses = currentCourses.stream().filter(c -> c.getCourseFrequency().contains(courseFrequency)).collect(Collectors.toList());
-
-        return this;
+        return where(CourseIndex.Field.FREQUENCY, Objects.requireNonNull(courseFrequency), false);
     }
 
     /**
@@ -100,8 +110,7 @@ public class CourseGetter {
      * @return this CourseGetter with updated information
      */
     public CourseGetter limitByTeacherLastName(String teacherLastName) {
-        currentCourses = currentCourses.stream().filter(c -> c.getTeacherLastName().equals(teacherLastName)).collect(Collectors.toList());
-        return this;
+        return where(CourseIndex.Field.TEACHER_LAST_NAME, teacherLastName, true);
     }
 
     /**
@@ -111,15 +120,65 @@ public class CourseGetter {
      * @return this CourseGetter with updated information
      */
     public CourseGetter containsByTeacherLastName(String teacherLastName) {
-        currentCourses = currentCourses.stream().filter(c -> c.getTeacherLastName().contains(teacherLastName)).collect(Collectors.toList());
+        return where(CourseIndex.Field.TEACHER_LAST_NAME, Objects.requireNonNull(teacherLastName), false);
+    }
+
+    private CourseGetter where(CourseIndex.Field field, String value, boolean exact) {
+        clauses.add(new Clause(field, value, exact));
+        results = null;
         return this;
     }
 
     /**
-     * @return New ArrayList Object with the results of the filtering
+     * Evaluates every filter at once: exact filters intersect their hash index entries, contains filters intersect
+     * their trigram candidates, and only the remaining courses are checked against the contains filters
+     *
+     * @return Immutable list of the matching courses
+     */
+    private List<Course> evaluate() {
+        BitSet rows = index.all();
+        List<Clause> toCheck = new ArrayList<>();
+        for (Clause clause : clauses) {
+            if (clause.exact) {
+                rows.and(index.exact(clause.field, clause.value));
+            } else {
+                BitSet candidates = index.candidates(clause.field, clause.value);
+                if (candidates != null) {
+                    rows.and(candidates);
+                }
+                toCheck.add(clause);
+            }
+            if (rows.isEmpty()) {
+                return Collections.emptyList();
+            }
+        }
+
+        List<Course> courses = index.getCourses();
+        List<Course> matches = new ArrayList<>(rows.cardinality());
+        rows:
+        for (int i = rows.nextSetBit(0); i >= 0; i = rows.nextSetBit(i + 1)) {
+            Course course = courses.get(i);
+            for (Clause clause : toCheck) {
+                String value = clause.field.of(course);
+                if (value == null || !value.contains(clause.value)) {
+                    continue rows;
+                }
+            }
+            matches.add(course);
+        }
+        return Collections.unmodifiableList(matches);
+    }
+
+    /**
+     * @return Immutable list with the results of the filtering
      */
     public List<Course> results() {
-        return List.copyOf(currentCourses);
+        List<Course> current = results;
+        if (current == null) {
+            current = evaluate();
+            results = current;
+        }
+        return current;
     }
 
     /**
@@ -138,11 +197,8 @@ public class CourseGetter {
      * @return Result at the requested index
      */
     public Course get(int index) {
-        try {
-            return results().get(index);
-        } catch (IndexOutOfBoundsException e) {
-            return null;
-        }
+        List<Course> current = results();
+        return index >= 0 && index < current.size() ? current.get(index) : null;
     }
 
     /**
@@ -152,4 +208,19 @@ public class CourseGetter {
         return get(0);
     }
 
+    /**
+     * A single recorded filter
+     */
+    private static final class Clause {
+        private final CourseIndex.Field field;
+        private final String value;
+        private final boolean exact;
+
+        private Clause(CourseIndex.Field field, String value, boolean exact) {
+            this.field = field;
+            this.value = value;
+            this.exact = exact;
+        }
+    }
+
 }
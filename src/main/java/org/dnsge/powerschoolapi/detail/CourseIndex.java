@@ -0,0 +1,170 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Daniel Sage
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.dnsge.powerschoolapi.detail;
+
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Immutable search index over a list of courses, used by {@link CourseGetter}
+ * <p>
+ * Every searchable field has a hash index from exact value to the matching course positions, and a trigram index
+ * from every three-character substring to the positions of the values containing it. A {@code contains} search for
+ * three or more characters only has to check the courses sharing all of its trigrams.
+ *
+ * @author Daniel Sage
+ * @version 1.0
+ * @see org.dnsge.powerschoolapi.user.User#newCourseGetter()
+ */
+public final class CourseIndex {
+
+    /**
+     * Searchable field of a Course
+     */
+    enum Field {
+        NAME(Course::getCourseName),
+        FREQUENCY(Course::getCourseFrequency),
+        TEACHER_LAST_NAME(Course::getTeacherLastName);
+
+        private final Function<Course, String> getter;
+
+        Field(Function<Course, String> getter) {
+            this.getter = getter;
+        }
+
+        String of(Course course) {
+            return getter.apply(course);
+        }
+    }
+
+    private static final BitSet NONE = new BitSet();
+
+    private final List<Course> source;
+    private final List<Course> courses;
+    private final BitSet all;
+    private final EnumMap<Field, Map<String, BitSet>> exact = new EnumMap<>(Field.class);
+    private final EnumMap<Field, Map<Long, BitSet>> trigrams = new EnumMap<>(Field.class);
+
+    private CourseIndex(List<Course> source) {
+        this.source = source;
+        this.courses = List.copyOf(source);
+        this.all = new BitSet(courses.size());
+        all.set(0, courses.size());
+
+        for (Field field : Field.values()) {
+            Map<String, BitSet> values = new HashMap<>();
+            Map<Long, BitSet> grams = new HashMap<>();
+            for (int i = 0; i < courses.size(); i++) {
+                String value = field.of(courses.get(i));
+                if (value == null) {
+                    continue;
+                }
+                values.computeIfAbsent(value, k -> new BitSet()).set(i);
+                for (int c = 0; c + 3 <= value.length(); c++) {
+                    grams.computeIfAbsent(trigram(value, c), k -> new BitSet()).set(i);
+                }
+            }
+            exact.put(field, values);
+            trigrams.put(field, grams);
+        }
+    }
+
+    /**
+     * Indexes a list of courses
+     *
+     * @param courses Courses to index
+     * @return The new CourseIndex
+     */
+    public static CourseIndex of(List<Course> courses) {
+        return new CourseIndex(courses);
+    }
+
+    /**
+     * @param courses List of courses
+     * @return Whether this index was built from that exact list
+     */
+    public boolean isBuiltFrom(List<Course> courses) {
+        return source == courses && this.courses.size() == courses.size();
+    }
+
+    /**
+     * @return Immutable list of the indexed courses
+     */
+    public List<Course> getCourses() {
+        return courses;
+    }
+
+    private static long trigram(String value, int from) {
+        return (long) value.charAt(from) << 32 | (long) value.charAt(from + 1) << 16 | value.charAt(from + 2);
+    }
+
+    /**
+     * @return New BitSet of every course position
+     */
+    BitSet all() {
+        return (BitSet) all.clone();
+    }
+
+    /**
+     * @param field Field to search
+     * @param value Exact value
+     * @return Read-only positions of the courses with the value
+     */
+    BitSet exact(Field field, String value) {
+        return value == null ? NONE : exact.get(field).getOrDefault(value, NONE);
+    }
+
+    /**
+     * Narrows down the courses that may contain a value, which still have to be checked
+     *
+     * @param field Field to search
+     * @param value Value to contain
+     * @return New BitSet of candidate positions, or null if the value is too short to use the index
+     */
+    BitSet candidates(Field field, String value) {
+        if (value.length() < 3) {
+            return null;
+        }
+        Map<Long, BitSet> grams = trigrams.get(field);
+        BitSet candidates = null;
+        for (int c = 0; c + 3 <= value.length(); c++) {
+            BitSet positions = grams.get(trigram(value, c));
+            if (positions == null) {
+                return new BitSet();
+            }
+            if (candidates == null) {
+                candidates = (BitSet) positions.clone();
+            } else {
+                candidates.and(positions);
+            }
+        }
+        return candidates;
+    }
+
+}
@@ -26,10 +26,13 @@ package org.dnsge.powerschoolapi.detail;
 
 import org.dnsge.powerschoolapi.util.ColumnMode;
 import org.dnsge.powerschoolapi.util.DocumentFetcher;
+import org.dnsge.powerschoolapi.util.Fingerprints;
+import org.dnsge.powerschoolapi.util.HeaderDialects;
 import org.json.JSONObject;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 
+import java.time.LocalDate;
 import java.util.Objects;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -48,10 +51,14 @@ public class GradeGroup {
     private final String letterGrade;
     private final float numberGrade;
     private final GradingPeriod gradingPeriod;
+    private final int periodId;
     private final String gradingPeriodName;
     private final String hrefAttrib;
     private boolean isEmpty;
     private boolean isUnused;
+    private volatile String sectionId;
+    private volatile long fingerprint;
+    private AssignmentPrefetch prefetch; // Guarded by this
 
     private static final Pattern urlMatcherPattern =
             Pattern.compile("guardian/scores\\.html\\?frn=(\\d+)&begdate=(\\d{2})/(\\d{2})/(\\d{4})&enddate=(\\d{2})/(\\d{2})/(\\d{4})&fg=([^&]+)&schoolid=(\\d+)", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
@@ -66,14 +73,28 @@ public class GradeGroup {
      * @param hrefAttrib      Partial URL that contains a link to the page for the assignments within this specific GradeGroup
      */
     public GradeGroup(DocumentFetcher documentFetcher, String letterGrade, float numberGrade, ColumnMode gradingPeriod, String hrefAttrib) {
+        this(documentFetcher, letterGrade, numberGrade, gradingPeriod.periodId(), hrefAttrib);
+    }
+
+    /**
+     * Constructor for any grading period registered in {@link HeaderDialects}
+     *
+     * @param documentFetcher {@link DocumentFetcher} to use for getting detailed assignments
+     * @param letterGrade     Grade as a letter for GradeGroup
+     * @param numberGrade     Grade as a number for GradeGroup
+     * @param periodId        Period id of the grading period
+     * @param hrefAttrib      Partial URL that contains a link to the page for the assignments within this specific GradeGroup
+     */
+    public GradeGroup(DocumentFetcher documentFetcher, String letterGrade, float numberGrade, int periodId, String hrefAttrib) {
 
         this.documentFetcher = documentFetcher;
         this.letterGrade = letterGrade;
         this.numberGrade = numberGrade;
         this.hrefAttrib = "guardian/" + hrefAttrib;
 
-        this.gradingPeriod = GradingPeriod.fromColumnMode(gradingPeriod);
-        this.gradingPeriodName = this.gradingPeriod.toString();
+        this.periodId = periodId;
+        this.gradingPeriod = GradingPeriod.fromPeriodId(periodId);
+        this.gradingPeriodName = HeaderDialects.periodName(periodId);
 
         this.isEmpty = false;
         this.isUnused = false;
@@ -84,6 +105,10 @@ public class GradeGroup {
         this(documentFetcher, "", 0f, gradingPeriod, null);
     }
 
+    public GradeGroup(DocumentFetcher documentFetcher, int periodId) {
+        this(documentFetcher, "", 0f, periodId, null);
+    }
+
     /**
      * Retrieves a {@code JSONObject} that represents every assignment in the GradeGroup
      *
@@ -91,6 +116,43 @@ public class GradeGroup {
      * @see JSONObject
      */
     JSONObject getJsonPostForAssignments() {
+        return getJsonPostForAssignments(getStartDate(), getEndDate());
+    }
+
+    /**
+     * Retrieves a {@code JSONObject} that represents the assignments in the GradeGroup within a date window
+     *
+     * @param startDate First day of the window
+     * @param endDate   Last day of the window
+     * @return The new JSONObject
+     * @see JSONObject
+     */
+    JSONObject getJsonPostForAssignments(LocalDate startDate, LocalDate endDate) {
+        JSONObject returnObject = new JSONObject();
+        returnObject.put("start_date", startDate.toString());
+        returnObject.put("end_date", endDate.toString());
+        returnObject.put("section_ids", new String[]{getSectionId()});
+
+        return returnObject;
+    }
+
+    /**
+     * Gets the section id of this GradeGroup, fetching the scores page the first time
+     *
+     * @return Section id
+     */
+    String getSectionId() {
+        String id = sectionId;
+        if (id == null) {
+            Document dd = documentFetcher.get(hrefAttrib);
+            Element target = dd.getElementById("content-main").child(2).child(6).child(0);
+            id = target.attr("data-sectionid");
+            sectionId = id;
+        }
+        return id;
+    }
+
+    private Matcher hrefMatcher() {
         Matcher urlMatcher = urlMatcherPattern.matcher(hrefAttrib);
         urlMatcher.matches();
 
@@ -103,29 +165,66 @@ public class GradeGroup {
         // 7 - Enddate year
         // 8 - Grading period
         // 9 - School id
+        return urlMatcher;
+    }
 
-        // Match and construct the JSON data
-
-        String begMonth = urlMatcher.group(2);
-        String begDay = urlMatcher.group(3);
-        String begYear = urlMatcher.group(4);
-        String endMonth = urlMatcher.group(5);
-        String endDay = urlMatcher.group(6);
-        String endYear = urlMatcher.group(7);
+    /**
+     * @return First day of the grading period, as linked from the home page, or null if there is no link
+     */
+    public LocalDate getStartDate() {
+        Matcher urlMatcher = hrefMatcher();
+        if (!urlMatcher.matches()) {
+            return null;
+        }
+        return LocalDate.of(Integer.parseInt(urlMatcher.group(4)),
+                Integer.parseInt(urlMatcher.group(2)), Integer.parseInt(urlMatcher.group(3)));
+    }
 
-        String formattedBegDate = begYear + "-" + begMonth + "-" + begDay;
-        String formattedEndDate = endYear + "-" + endMonth + "-" + endDay;
+    /**
+     * @return Last day of the grading period, as linked from the home page, or null if there is no link
+     */
+    public LocalDate getEndDate() {
+        Matcher urlMatcher = hrefMatcher();
+        if (!urlMatcher.matches()) {
+            return null;
+        }
+        return LocalDate.of(Integer.parseInt(urlMatcher.group(7)),
+                Integer.parseInt(urlMatcher.group(5)), Integer.parseInt(urlMatcher.group(6)));
+    }
 
-        Document dd = documentFetcher.get(hrefAttrib);
-        Element target = dd.getElementById("content-main").child(2).child(6).child(0);
-        String sectionId = target.attr("data-sectionid");
+    /**
+     * Checks whether a day falls within the grading period
+     *
+     * @param date Day to check
+     * @return Whether the grading period linked from the home page includes the day
+     */
+    public boolean covers(LocalDate date) {
+        LocalDate start = getStartDate();
+        LocalDate end = getEndDate();
+        return start != null && !date.isBefore(start) && !date.isAfter(end);
+    }
 
-        JSONObject returnObject = new JSONObject();
-        returnObject.put("start_date", formattedBegDate);
-        returnObject.put("end_date", formattedEndDate);
-        returnObject.put("section_ids", new String[]{sectionId});
+    /**
+     * Attaches a prefetch to this GradeGroup
+     *
+     * @param next Prefetch to attach
+     * @return Prefetch that was attached before, or null
+     */
+    synchronized AssignmentPrefetch swapPrefetch(AssignmentPrefetch next) {
+        AssignmentPrefetch previous = prefetch;
+        prefetch = next;
+        return previous;
+    }
 
-        return returnObject;
+    /**
+     * Detaches the prefetch of this GradeGroup
+     *
+     * @return Prefetch that was attached, or null
+     */
+    synchronized AssignmentPrefetch takePrefetch() {
+        AssignmentPrefetch taken = prefetch;
+        prefetch = null;
+        return taken;
     }
 
     /**
@@ -136,8 +235,19 @@ public class GradeGroup {
      * @return new GradeGroup object with the desired attributes
      */
     public static GradeGroup noGrade(Course myCourse, ColumnMode gradingPeriod) {
+        return noGrade(myCourse, gradingPeriod.periodId());
+    }
+
+    /**
+     * Creates a new GradeGroup that is 'empty'
+     *
+     * @param myCourse {@code Course} that the GradeGroup belongs to
+     * @param periodId Period id of the grading period
+     * @return new GradeGroup object with the desired attributes
+     */
+    public static GradeGroup noGrade(Course myCourse, int periodId) {
         // An empty GradeGroup ( [ i ] ) bound to a course and grading period
-        GradeGroup temp = new GradeGroup(myCourse.getUser().documentFetcher(), gradingPeriod);
+        GradeGroup temp = new GradeGroup(myCourse.getUser().documentFetcher(), periodId);
         temp.setEmpty(true);
         return temp;
     }
@@ -150,8 +260,19 @@ public class GradeGroup {
      * @return new GradeGroup object with the desired attributes
      */
     public static GradeGroup emptyGrade(Course myCourse, ColumnMode gradingPeriod) {
+        return emptyGrade(myCourse, gradingPeriod.periodId());
+    }
+
+    /**
+     * Creates a new GradeGroup that is 'empty' and 'unused'
+     *
+     * @param myCourse {@code Course} that the GradeGroup belongs to
+     * @param periodId Period id of the grading period
+     * @return new GradeGroup object with the desired attributes
+     */
+    public static GradeGroup emptyGrade(Course myCourse, int periodId) {
         // An empty GradeGroup ( not even a [ i ] ) bound to a course and grading period
-        GradeGroup temp = new GradeGroup(myCourse.getUser().documentFetcher(), gradingPeriod);
+        GradeGroup temp = new GradeGroup(myCourse.getUser().documentFetcher(), periodId);
         temp.setEmpty(true);
         temp.setUnused(true);
         return temp;
@@ -183,6 +304,40 @@ public class GradeGroup {
         return Objects.hash(getLetterGrade(), getNumberGrade(), getGradingPeriod(), getGradingPeriodName(), isEmpty(), isUnused());
     }
 
+    /**
+     * Returns a stable 64-bit fingerprint of the section and grading period this GradeGroup links to, built from the
+     * frn, school id, grading period and term dates of its link. The fingerprint does not change with the grade, so
+     * it can key caches and diffs across refreshes.
+     *
+     * @return Fingerprint, or 0 if this GradeGroup has no assignments link
+     */
+    public long getFingerprint() {
+        long value = fingerprint;
+        if (value == 0L) {
+            Matcher urlMatcher = hrefMatcher();
+            if (!urlMatcher.matches()) {
+                return 0L;
+            }
+            value = Fingerprints.start();
+            for (int group = 1; group <= 9; group++) {
+                value = Fingerprints.mix(value, urlMatcher.group(group));
+            }
+            value = value == 0L ? 1L : value;
+            fingerprint = value;
+        }
+        return value;
+    }
+
+    /**
+     * Checks whether another GradeGroup shows the same grade, for the same grading period and link
+     *
+     * @param other GradeGroup to compare to
+     * @return Whether both GradeGroups are interchangeable
+     */
+    boolean isSameGrade(GradeGroup other) {
+        return periodId == other.periodId && equals(other) && Objects.equals(hrefAttrib, other.hrefAttrib);
+    }
+
     /**
      * Has the value [ i ]
      * @return Whether this {@code GradeGroup} has no grades
@@ -224,6 +379,14 @@ public class GradeGroup {
         return gradingPeriod;
     }
 
+    /**
+     * @return The period id of this {@code GradeGroup}, which also covers periods outside of {@code GradingPeriod}
+     * @see HeaderDialects
+     */
+    public int getPeriodId() {
+        return periodId;
+    }
+
     /**
      * @return The name of the grading period of this {@code GradeGroup}
      */
@@ -25,6 +25,7 @@
 package org.dnsge.powerschoolapi.detail;
 
 import org.dnsge.powerschoolapi.util.ColumnMode;
+import org.dnsge.powerschoolapi.util.HeaderDialects;
 
 /**
  * Enum that represents a specific GradingPeriod for a GradeGroup
@@ -42,6 +43,8 @@ public enum GradingPeriod {
     E2,
     Unknown;
 
+    private static final GradingPeriod[] VALUES = values();
+
     /**
      * Finds the specific GradingPeriod from a number
      *
@@ -65,24 +68,24 @@ public enum GradingPeriod {
      * @see ColumnMode
      */
     public static GradingPeriod fromColumnMode(ColumnMode mode) {
-        switch (mode.toString()) {
-            case "Q1":
-                return Q1;
-            case "Q2":
-                return Q2;
-            case "Q3":
-                return Q3;
-            case "Q4":
-                return Q4;
-            case "E1":
-                return E1;
-            case "E2":
-                return E2;
-            case "F1":
-                return F1;
-        }
+        return fromPeriodId(mode.periodId());
+    }
+
+    /**
+     * Converts a period id from {@link HeaderDialects} to a {@code GradingPeriod}
+     *
+     * @param periodId Period id to convert
+     * @return Desired GradingPeriod, or {@code Unknown} if the period isn't part of the built-in quarter dialect
+     */
+    public static GradingPeriod fromPeriodId(int periodId) {
+        return periodId >= 0 && periodId < Unknown.ordinal() ? VALUES[periodId] : Unknown;
+    }
 
-        return Unknown;
+    /**
+     * @return Period id of this {@code GradingPeriod} in {@link HeaderDialects}
+     */
+    public int periodId() {
+        return this == Unknown ? HeaderDialects.UNKNOWN_PERIOD : ordinal();
     }
 
     /**
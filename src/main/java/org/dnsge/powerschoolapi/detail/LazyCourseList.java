@@ -0,0 +1,152 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Daniel Sage
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.dnsge.powerschoolapi.detail;
+
+import org.dnsge.powerschoolapi.metrics.Counter;
+import org.dnsge.powerschoolapi.user.User;
+import org.dnsge.powerschoolapi.util.ViewSpecification;
+import org.jsoup.nodes.Element;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Read-only list of a User's courses that parses each home page row the first time it is read
+ * <p>
+ * Only the row boundaries are recorded up front. {@link #get(int)} parses the row's course, leaving its grade cells
+ * until {@link Course#getCourseGrades()} is called. Parsed courses are published atomically, so concurrent readers
+ * always see the same {@code Course} for a row.
+ *
+ * @author Daniel Sage
+ * @version 1.0
+ * @see Course#generateCourseFromElement(Element, User, ViewSpecification)
+ */
+public final class LazyCourseList extends AbstractList<Course> implements RandomAccess {
+
+    private final Element[] rows;
+    private final String[] rowIds;
+    private final User user;
+    private final ViewSpecification viewSpecification;
+    private final AtomicReferenceArray<Course> courses;
+    private volatile Consumer<Course> parseListener;
+
+    private LazyCourseList(Element[] rows, User user, ViewSpecification viewSpecification) {
+        this.rows = rows;
+        this.rowIds = new String[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            rowIds[i] = rows[i].id();
+        }
+        this.user = user;
+        this.viewSpecification = viewSpecification;
+        this.courses = new AtomicReferenceArray<>(rows.length);
+    }
+
+    /**
+     * Creates a LazyCourseList over home page rows
+     *
+     * @param rows              {@code <tr>} elements of the courses
+     * @param user              User that the courses belong to
+     * @param viewSpecification {@code ViewSpecification} of the home page table
+     * @return The new LazyCourseList
+     */
+    public static LazyCourseList of(List<Element> rows, User user, ViewSpecification viewSpecification) {
+        return new LazyCourseList(rows.toArray(new Element[0]), user, viewSpecification);
+    }
+
+    /**
+     * Gets the course of a row, parsing it if no one has yet
+     *
+     * @param index Index of the row
+     * @return The row's Course
+     */
+    @Override
+    public Course get(int index) {
+        Course course = courses.get(index);
+        if (course == null) {
+            Course parsed = Course.generateCourseFromElement(rows[index], user, viewSpecification, true);
+            if (courses.compareAndSet(index, null, parsed)) {
+                user.getClient().getMetrics().increment(Counter.COURSES_PARSED);
+                Consumer<Course> listener = parseListener;
+                if (listener != null) {
+                    listener.accept(parsed);
+                }
+                course = parsed;
+            } else {
+                course = courses.get(index);
+            }
+        }
+        return course;
+    }
+
+    @Override
+    public int size() {
+        return rows.length;
+    }
+
+    /**
+     * @param index Index of the row
+     * @return Whether the course of the row has been parsed
+     */
+    public boolean isParsed(int index) {
+        return courses.get(index) != null;
+    }
+
+    /**
+     * @return The courses parsed so far, in row order
+     */
+    public List<Course> getParsedCourses() {
+        ArrayList<Course> parsed = new ArrayList<>();
+        for (int i = 0; i < rows.length; i++) {
+            Course course = courses.get(i);
+            if (course != null) {
+                parsed.add(course);
+            }
+        }
+        return parsed;
+    }
+
+    /**
+     * Sets a listener that is called with each course parsed from now on, on the thread that parsed it
+     *
+     * @param listener Listener to call, or null to remove it
+     */
+    public void onParse(Consumer<Course> listener) {
+        this.parseListener = listener;
+    }
+
+    /**
+     * @return The id attributes of the rows, available without parsing them
+     */
+    public List<String> getRowIds() {
+        return Collections.unmodifiableList(Arrays.asList(rowIds));
+    }
+
+}
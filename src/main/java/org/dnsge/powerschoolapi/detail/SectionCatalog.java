@@ -0,0 +1,250 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Daniel Sage
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.dnsge.powerschoolapi.detail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Concurrent, bounded catalog of the course sections seen by a client, shared between all of its users, or by every
+ * client of a {@link org.dnsge.powerschoolapi.client.PowerschoolClientRegistry}
+ * <p>
+ * Sections are keyed by what every student enrolled in them sees on their home page, so classmates resolve to the
+ * same entry. Parsing a row whose section is already known reuses the catalog's {@link SectionInfo} instead of
+ * parsing the cells again. Every user enrolled in a section is recorded, and a section is dropped once its last
+ * user is unenrolled.
+ * <p>
+ * Users that are simply discarded are never unenrolled, so the catalog is also bounded. Once it grows past its
+ * maximum size it evicts the least recently used of a few sections sampled round robin. Evicting is always safe:
+ * courses keep their {@code SectionInfo}, and the next row of an evicted section parses it again.
+ *
+ * @author Daniel Sage
+ * @version 1.0
+ * @see org.dnsge.powerschoolapi.client.PowerschoolClient#getSectionCatalog()
+ */
+public final class SectionCatalog {
+
+    /** Default maximum number of sections */
+    public static final int DEFAULT_MAX_SECTIONS = 1 << 16;
+
+    private static final int EVICTION_SAMPLES = 8;
+
+    private final ConcurrentHashMap<Long, Entry> sections = new ConcurrentHashMap<>();
+    private final int maxSections;
+    private final AtomicLong ticks = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private Iterator<Map.Entry<Long, Entry>> cursor; // Guarded by cursorLock
+    private final Object cursorLock = new Object();
+
+    /**
+     * Creates a SectionCatalog with the default maximum size
+     */
+    public SectionCatalog() {
+        this(DEFAULT_MAX_SECTIONS);
+    }
+
+    /**
+     * Creates a SectionCatalog
+     *
+     * @param maxSections Maximum number of sections
+     */
+    public SectionCatalog(int maxSections) {
+        if (maxSections < 1) {
+            throw new IllegalArgumentException("Maximum sections must be positive");
+        }
+        this.maxSections = maxSections;
+    }
+
+    /**
+     * Gets the section with a key and enrolls a user in it, parsing the section if it is not known yet
+     *
+     * @param key      Key of the section
+     * @param parser   Parses the section on a miss
+     * @param username Username of the enrolled user, or null to only look up the section
+     * @return Shared SectionInfo of the section
+     */
+    SectionInfo resolve(long key, Supplier<SectionInfo> parser, String username) {
+        if (username == null) {
+            Entry entry = sections.get(key);
+            if (entry != null) {
+                hits.increment();
+                entry.lastUsed = ticks.incrementAndGet();
+                return entry.info;
+            }
+            misses.increment();
+            return parser.get();
+        }
+        SectionInfo info = sections.compute(key, (k, entry) -> {
+            if (entry == null) {
+                misses.increment();
+                entry = new Entry(parser.get());
+            } else {
+                hits.increment();
+            }
+            entry.lastUsed = ticks.incrementAndGet();
+            entry.enrolled.add(username);
+            return entry;
+        }).info;
+        if (sections.size() > maxSections) {
+            evict();
+        }
+        return info;
+    }
+
+    /**
+     * Evicts sections until the catalog is back within its bound, each time dropping the least recently used of a
+     * few sections taken round robin
+     */
+    private void evict() {
+        synchronized (cursorLock) {
+            while (sections.size() > maxSections) {
+                Map.Entry<Long, Entry> oldest = null;
+                for (int i = 0; i < EVICTION_SAMPLES; i++) {
+                    if (cursor == null || !cursor.hasNext()) {
+                        cursor = sections.entrySet().iterator();
+                        if (!cursor.hasNext()) {
+                            return;
+                        }
+                    }
+                    Map.Entry<Long, Entry> candidate = cursor.next();
+                    if (oldest == null || candidate.getValue().lastUsed < oldest.getValue().lastUsed) {
+                        oldest = candidate;
+                    }
+                }
+                if (sections.remove(oldest.getKey(), oldest.getValue())) {
+                    evictions.increment();
+                }
+            }
+        }
+    }
+
+    /**
+     * Records that a user is no longer enrolled in a section, dropping the section if it was the last one
+     *
+     * @param section  Section from this catalog
+     * @param username Username of the user
+     */
+    public void unenroll(SectionInfo section, String username) {
+        if (username == null) {
+            return;
+        }
+        sections.computeIfPresent(section.getKey(), (k, entry) -> {
+            entry.enrolled.remove(username);
+            return entry.enrolled.isEmpty() ? null : entry;
+        });
+    }
+
+    /**
+     * @param key Key of the section
+     * @return SectionInfo with the key, or null if it is not known
+     */
+    public SectionInfo get(long key) {
+        Entry entry = sections.get(key);
+        return entry == null ? null : entry.info;
+    }
+
+    /**
+     * @param section Section to look up
+     * @return Read-only live view of the usernames enrolled in the section, empty if the section is not known
+     */
+    public Set<String> getEnrolledUsers(SectionInfo section) {
+        Entry entry = sections.get(section.getKey());
+        return entry == null ? Collections.emptySet() : Collections.unmodifiableSet(entry.enrolled);
+    }
+
+    /**
+     * @return Snapshot of every known section
+     */
+    public List<SectionInfo> getSections() {
+        List<SectionInfo> list = new ArrayList<>(sections.size());
+        for (Entry entry : sections.values()) {
+            list.add(entry.info);
+        }
+        return list;
+    }
+
+    /**
+     * @return Number of known sections
+     */
+    public int size() {
+        return sections.size();
+    }
+
+    /**
+     * @return Maximum number of sections
+     */
+    public int getMaxSections() {
+        return maxSections;
+    }
+
+    /**
+     * @return Number of rows that resolved to an already known section
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return Number of rows that had to be parsed
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return Number of sections evicted to stay within the maximum size
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Forgets every section
+     */
+    public void clear() {
+        sections.clear();
+    }
+
+    private static final class Entry {
+        private final SectionInfo info;
+        private final Set<String> enrolled = ConcurrentHashMap.newKeySet();
+        private volatile long lastUsed;
+
+        private Entry(SectionInfo info) {
+            this.info = info;
+        }
+    }
+
+}
@@ -0,0 +1,158 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Daniel Sage
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.dnsge.powerschoolapi.detail;
+
+import org.dnsge.powerschoolapi.util.Fingerprints;
+
+import java.util.Objects;
+
+/**
+ * Immutable description of a course section, shared by every {@code Course} of the section's students
+ *
+ * @author Daniel Sage
+ * @version 1.0
+ * @see SectionCatalog
+ */
+public final class SectionInfo {
+
+    private final long key;
+    private final String courseFrequency;
+    private final String courseName;
+    private final String teacherFirstName;
+    private final String teacherLastName;
+    private final String teacherEmail;
+    private final String room;
+
+    /**
+     * Creates a SectionInfo keyed by a fingerprint of its fields
+     *
+     * @param courseFrequency  Frequency 'code' of the section
+     * @param courseName       Name of the section's course
+     * @param teacherFirstName Teacher's first name
+     * @param teacherLastName  Teacher's last name
+     * @param teacherEmail     Teacher's email
+     * @param room             Room number
+     */
+    public SectionInfo(String courseFrequency, String courseName, String teacherFirstName, String teacherLastName,
+                       String teacherEmail, String room) {
+        this(keyOf(courseFrequency, courseName, teacherFirstName, teacherLastName, teacherEmail, room),
+                courseFrequency, courseName, teacherFirstName, teacherLastName, teacherEmail, room);
+    }
+
+    SectionInfo(long key, String courseFrequency, String courseName, String teacherFirstName, String teacherLastName,
+                String teacherEmail, String room) {
+        this.key = key;
+        this.courseFrequency = courseFrequency;
+        this.courseName = courseName;
+        this.teacherFirstName = teacherFirstName;
+        this.teacherLastName = teacherLastName;
+        this.teacherEmail = teacherEmail;
+        this.room = room;
+    }
+
+    private static long keyOf(String... fields) {
+        long key = Fingerprints.start();
+        for (String field : fields) {
+            key = Fingerprints.mix(key, field);
+        }
+        return key;
+    }
+
+    /**
+     * @return Key of this section in a {@code SectionCatalog}
+     */
+    public long getKey() {
+        return key;
+    }
+
+    /**
+     * @return Section frequency code
+     */
+    public String getCourseFrequency() {
+        return courseFrequency;
+    }
+
+    /**
+     * @return Name of the section's course
+     */
+    public String getCourseName() {
+        return courseName;
+    }
+
+    /**
+     * @return Teacher's first name
+     */
+    public String getTeacherFirstName() {
+        return teacherFirstName;
+    }
+
+    /**
+     * @return Teacher's last name
+     */
+    public String getTeacherLastName() {
+        return teacherLastName;
+    }
+
+    /**
+     * @return Teacher's email address
+     */
+    public String getTeacherEmail() {
+        return teacherEmail;
+    }
+
+    /**
+     * @return Room number (might not exist)
+     */
+    public String getRoom() {
+        return room;
+    }
+
+    /**
+     * @return A {@code String} formatted like {@code "{Course Name} - {Teacher Last Name} ({Frequency})"}
+     */
+    @Override
+    public String toString() {
+        return courseName + " - " + teacherLastName + " (" + courseFrequency + ")";
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SectionInfo that = (SectionInfo) o;
+        return Objects.equals(courseFrequency, that.courseFrequency) &&
+                Objects.equals(courseName, that.courseName) &&
+                Objects.equals(teacherFirstName, that.teacherFirstName) &&
+                Objects.equals(teacherLastName, that.teacherLastName) &&
+                Objects.equals(teacherEmail, that.teacherEmail) &&
+                Objects.equals(room, that.room);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(courseFrequency, courseName, teacherFirstName, teacherLastName, teacherEmail, room);
+    }
+
+}
@@ -0,0 +1,66 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Daniel Sage
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.dnsge.powerschoolapi.metrics;
+
+/**
+ * Enum of the counters recorded through {@link PowerschoolMetrics}
+ *
+ * @author Daniel Sage
+ * @version 1.0
+ */
+public enum Counter {
+    /** HTTP requests performed */
+    REQUESTS,
+    /** HTTP requests that threw */
+    REQUEST_FAILURES,
+    /** Bytes of response bodies received */
+    BYTES_RECEIVED,
+    /** Successful logins from {@code authenticate} */
+    LOGINS,
+    /** Logins performed by {@code refreshUser} because the cookies expired */
+    RELOGINS,
+    /** Logins rejected by Powerschool */
+    LOGIN_FAILURES,
+    /** Logins rejected locally by the login failure cache */
+    LOGIN_FAILURE_CACHE_HITS,
+    /** Logins let through by the login failure cache */
+    LOGIN_FAILURE_CACHE_MISSES,
+    /** Refreshes that skipped parsing because the home page had not changed */
+    UNCHANGED_REFRESHES,
+    /** Courses parsed from a home page */
+    COURSES_PARSED,
+    /** Assignments parsed from lookup JSON */
+    ASSIGNMENTS_PARSED,
+    /** Background assignment lookups started */
+    PREFETCHES,
+    /** Assignment lookups answered by a background lookup */
+    PREFETCH_HITS,
+    /** Parsed Strings that were replaced by an instance already in the string pool */
+    STRING_POOL_HITS,
+    /** Parsed Strings that were added to the string pool */
+    STRING_POOL_MISSES,
+    /** Assignment change events dropped because a subscriber's buffer was full */
+    CHANGE_EVENTS_DROPPED
+}
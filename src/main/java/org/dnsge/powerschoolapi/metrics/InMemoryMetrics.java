@@ -0,0 +1,184 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Daniel Sage
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.dnsge.powerschoolapi.metrics;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link PowerschoolMetrics} implementation that keeps counters and latency histograms in memory
+ * <p>
+ * Use {@link #snapshot()} to read the current values, for example from a scheduled task that forwards them to a
+ * monitoring system.
+ *
+ * @author Daniel Sage
+ * @version 1.0
+ */
+public final class InMemoryMetrics implements PowerschoolMetrics {
+
+    private final LongAdder[] counters = new LongAdder[Counter.values().length];
+    private final LatencyHistogram[] latencies = new LatencyHistogram[Latency.values().length];
+
+    public InMemoryMetrics() {
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = new LatencyHistogram();
+        }
+    }
+
+    @Override
+    public void add(Counter counter, long amount) {
+        counters[counter.ordinal()].add(amount);
+    }
+
+    @Override
+    public void record(Latency latency, long nanos) {
+        latencies[latency.ordinal()].record(nanos);
+    }
+
+    /**
+     * @param counter Counter to get
+     * @return Current value of the counter
+     */
+    public long getCount(Counter counter) {
+        return counters[counter.ordinal()].sum();
+    }
+
+    /**
+     * @param latency Latency to get
+     * @return Live histogram of the latency, in nanoseconds
+     */
+    public LatencyHistogram getHistogram(Latency latency) {
+        return latencies[latency.ordinal()];
+    }
+
+    /**
+     * @return Copy of every counter and histogram
+     */
+    public Snapshot snapshot() {
+        EnumMap<Counter, Long> counterValues = new EnumMap<>(Counter.class);
+        for (Counter c : Counter.values()) {
+            counterValues.put(c, getCount(c));
+        }
+        EnumMap<Latency, LatencyHistogram.Snapshot> latencyValues = new EnumMap<>(Latency.class);
+        for (Latency l : Latency.values()) {
+            latencyValues.put(l, getHistogram(l).snapshot());
+        }
+        return new Snapshot(counterValues, latencyValues);
+    }
+
+    /**
+     * Clears every counter and histogram
+     */
+    public void reset() {
+        for (LongAdder counter : counters) {
+            counter.reset();
+        }
+        for (LatencyHistogram histogram : latencies) {
+            histogram.reset();
+        }
+    }
+
+    /**
+     * Immutable copy of an {@link InMemoryMetrics}
+     */
+    public static final class Snapshot {
+
+        private final Map<Counter, Long> counters;
+        private final Map<Latency, LatencyHistogram.Snapshot> latencies;
+
+        private Snapshot(Map<Counter, Long> counters, Map<Latency, LatencyHistogram.Snapshot> latencies) {
+            this.counters = counters;
+            this.latencies = latencies;
+        }
+
+        /**
+         * @return Value of every counter
+         */
+        public Map<Counter, Long> getCounters() {
+            return Map.copyOf(counters);
+        }
+
+        /**
+         * @return Histogram of every latency, in nanoseconds
+         */
+        public Map<Latency, LatencyHistogram.Snapshot> getLatencies() {
+            return Map.copyOf(latencies);
+        }
+
+        /**
+         * Gets the ratio of hits to lookups of a cache
+         *
+         * @param hits   Counter of cache hits
+         * @param misses Counter of cache misses
+         * @return Hit rate between 0 and 1, or 0 if there were no lookups
+         */
+        public double getHitRate(Counter hits, Counter misses) {
+            long h = counters.get(hits);
+            long total = h + counters.get(misses);
+            return total == 0 ? 0 : (double) h / total;
+        }
+
+        /**
+         * Flattens the snapshot into names like {@code "requests"} and {@code "latency.home_get.p99_ms"}
+         *
+         * @return Ordered map of metric names to values
+         */
+        public Map<String, Number> export() {
+            Map<String, Number> out = new LinkedHashMap<>();
+            counters.forEach((c, v) -> out.put(c.name().toLowerCase(), v));
+            latencies.forEach((l, h) -> {
+                String prefix = "latency." + l.name().toLowerCase() + ".";
+                out.put(prefix + "count", h.getCount());
+                out.put(prefix + "mean_ms", toMillis(h.getMean()));
+                out.put(prefix + "p50_ms", toMillis(h.getValueAtPercentile(50)));
+                out.put(prefix + "p90_ms", toMillis(h.getValueAtPercentile(90)));
+                out.put(prefix + "p99_ms", toMillis(h.getValueAtPercentile(99)));
+                out.put(prefix + "max_ms", toMillis(h.getMax()));
+            });
+            return out;
+        }
+
+        private static double toMillis(double nanos) {
+            return nanos / TimeUnit.MILLISECONDS.toNanos(1);
+        }
+
+        /**
+         * @return Every exported metric on its own line
+         */
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            export().forEach((k, v) -> sb.append(k).append(' ').append(v).append('\n'));
+            return sb.toString();
+        }
+    }
+
+}
@@ -0,0 +1,52 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Daniel Sage
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.dnsge.powerschoolapi.metrics;
+
+/**
+ * Enum of the latencies recorded through {@link PowerschoolMetrics}, one per endpoint or parse phase
+ *
+ * @author Daniel Sage
+ * @version 1.0
+ */
+public enum Latency {
+    /** GET of the public login page */
+    LOGIN_PAGE,
+    /** POST of the login form */
+    LOGIN_POST,
+    /** GET of the guardian home page */
+    HOME_GET,
+    /** Generic GET through {@code getAs} */
+    GET_AS,
+    /** GET and section id lookup of a scores page */
+    SCORES_PAGE,
+    /** POST to the assignment lookup endpoint */
+    ASSIGNMENT_LOOKUP,
+    /** Parsing of a home page into courses */
+    USER_PARSE,
+    /** Parsing of assignment lookup JSON */
+    ASSIGNMENT_PARSE,
+    /** Statistics calculation */
+    STATISTICS
+}
@@ -0,0 +1,81 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Daniel Sage
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.dnsge.powerschoolapi.metrics;
+
+/**
+ * Service provider interface for recording metrics about requests and parsing
+ * <p>
+ * Implementations must be thread safe and cheap, since they are called on every request. Use {@link #noop()} to
+ * record nothing, or {@link InMemoryMetrics} to keep counters and latency histograms in memory.
+ *
+ * @author Daniel Sage
+ * @version 1.0
+ * @see org.dnsge.powerschoolapi.client.PowerschoolClient#getMetrics()
+ */
+public interface PowerschoolMetrics {
+
+    /**
+     * Adds to a counter
+     *
+     * @param counter Counter to add to
+     * @param amount  Amount to add
+     */
+    void add(Counter counter, long amount);
+
+    /**
+     * Records a latency
+     *
+     * @param latency Endpoint or phase that was timed
+     * @param nanos   Duration in nanoseconds
+     */
+    void record(Latency latency, long nanos);
+
+    /**
+     * Adds one to a counter
+     *
+     * @param counter Counter to increment
+     */
+    default void increment(Counter counter) {
+        add(counter, 1);
+    }
+
+    /**
+     * Records the time elapsed since a start time from {@link System#nanoTime()}
+     *
+     * @param latency   Endpoint or phase that was timed
+     * @param startNano Start time from {@link System#nanoTime()}
+     */
+    default void recordSince(Latency latency, long startNano) {
+        record(latency, System.nanoTime() - startNano);
+    }
+
+    /**
+     * @return Shared implementation that records nothing
+     */
+    static PowerschoolMetrics noop() {
+        return NoopMetrics.INSTANCE;
+    }
+
+}
@@ -0,0 +1,83 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Daniel Sage
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.dnsge.powerschoolapi.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for parsing a response, with the duration of the event being the parse time
+ * <p>
+ * Fields are only filled in when the event is going to be committed, so the event costs next to nothing while
+ * recording is disabled.
+ *
+ * @author Daniel Sage
+ * @version 1.0
+ */
+@Name("org.dnsge.powerschoolapi.Parse")
+@Label("Powerschool Parse")
+@Category("Powerschool")
+@Description("Parsing of a Powerschool page or JSON response")
+@StackTrace(false)
+public final class ParseEvent extends Event {
+
+    @Label("Install URL")
+    private String installUrl;
+
+    @Label("Phase")
+    private String phase;
+
+    @Label("Bytes Parsed")
+    @DataAmount
+    private long bytes;
+
+    @Label("Items Produced")
+    private int items;
+
+    /**
+     * Ends the event and commits it if it is being recorded
+     *
+     * @param installUrl Install URL of the Powerschool server
+     * @param phase      Name of the parse phase
+     * @param bytes      Size of the parsed input, or 0 if unknown
+     * @param items      Number of objects produced
+     */
+    public void finish(String installUrl, String phase, long bytes, int items) {
+        end();
+        if (shouldCommit()) {
+            this.installUrl = installUrl;
+            this.phase = phase;
+            this.bytes = bytes;
+            this.items = items;
+            commit();
+        }
+    }
+
+}
@@ -25,6 +25,7 @@
 package org.dnsge.powerschoolapi.stat;
 
 import org.dnsge.powerschoolapi.detail.Course;
+import org.dnsge.powerschoolapi.metrics.Latency;
 import org.dnsge.powerschoolapi.user.User;
 
 import java.util.List;
@@ -57,6 +58,7 @@ public class PowerschoolStatistics {
      * @return A {@link UserGpa} object
      */
     public UserGpa calculateGPA(DetailedCourseMapper mapper) {
+        long start = System.nanoTime();
         List<DetailedCourse> detailedCourses = mapper.mapAll(courses);
 
         double totalCreditHours = 0;
@@ -67,7 +69,9 @@ public class PowerschoolStatistics {
             qualityPoints += detailedCourse.getGradeValue() * detailedCourse.getCreditHours();
         }
 
-        return new UserGpa(user, detailedCourses, qualityPoints, totalCreditHours);
+        UserGpa gpa = new UserGpa(user, detailedCourses, qualityPoints, totalCreditHours);
+        user.getClient().getMetrics().recordSince(Latency.STATISTICS, start);
+        return gpa;
     }
 
     /**
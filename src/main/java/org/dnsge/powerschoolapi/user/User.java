@@ -26,8 +26,17 @@ package org.dnsge.powerschoolapi.user;
 
 import org.dnsge.powerschoolapi.client.DefaultPowerschoolClient;
 import org.dnsge.powerschoolapi.client.PowerschoolClient;
+import org.dnsge.powerschoolapi.detail.AssignmentFetcher;
 import org.dnsge.powerschoolapi.detail.Course;
 import org.dnsge.powerschoolapi.detail.CourseGetter;
+import org.dnsge.powerschoolapi.detail.CourseIndex;
+import org.dnsge.powerschoolapi.detail.GradingPeriod;
+import org.dnsge.powerschoolapi.detail.LazyCourseList;
+import org.dnsge.powerschoolapi.detail.SectionCatalog;
+import org.dnsge.powerschoolapi.metrics.Counter;
+import org.dnsge.powerschoolapi.metrics.Latency;
+import org.dnsge.powerschoolapi.metrics.PowerschoolMetrics;
+import org.dnsge.powerschoolapi.metrics.jfr.ParseEvent;
 import org.dnsge.powerschoolapi.util.ChildrenTree;
 import org.dnsge.powerschoolapi.util.DocumentFetcher;
 import org.dnsge.powerschoolapi.util.ViewSpecification;
@@ -36,8 +45,11 @@ import org.jsoup.nodes.Element;
 import org.jsoup.nodes.Node;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Class that represents a logged in Powerschool user
@@ -47,10 +59,11 @@ import java.util.Map;
  */
 public class User {
 
-    private ArrayList<Course> courses;
+    private volatile List<Course> courses;
     private String personName;
     private UserConfig config;
     private String username;
+    private volatile CourseIndex courseIndex;
 
     /**
      * Constructor for a User based off of a {@code UserConfig} object
@@ -61,30 +74,119 @@ public class User {
     public User(UserConfig config) {
         this.config = config;
         this.username = config.username;
-        this.courses = new ArrayList<>();
-
-        loadInfoFromDoc(this.config.getConstructionDocument());
+        this.courses = loadInfoFromDoc(this.config.getConstructionDocument());
     }
 
     /**
      * Update fields based off of a config
+     * <p>
+     * Courses are matched to the existing ones by their home page row, and unchanged {@code Course} and
+     * {@code GradeGroup} objects are kept. The resulting course list is published in a single write, and is only
+     * replaced if something changed.
      *
      * @param config UserConfig to update from
      */
     public void update(UserConfig config) {
         this.config = config;
         this.username = config.username;
-        this.courses = new ArrayList<>();
 
-        loadInfoFromDoc(this.config.getConstructionDocument());
+        List<Course> parsed = loadInfoFromDoc(this.config.getConstructionDocument());
+        this.courses = reconcile(courses, parsed);
+    }
+
+    /**
+     * Matches freshly parsed courses to the previous ones by row id, patching and keeping the previous ones
+     *
+     * @param previous Current courses
+     * @param parsed   Freshly parsed courses
+     * @return The previous list if nothing changed, otherwise a new list
+     */
+    private List<Course> reconcile(List<Course> previous, List<Course> parsed) {
+        if (previous instanceof LazyCourseList || parsed instanceof LazyCourseList) {
+            // Matching would parse every row, so publish the new list and only release the dropped sections
+            releaseDropped(previous, parsed);
+            return parsed;
+        }
+
+        Map<String, Course> byRow = new HashMap<>();
+        for (Course course : previous) {
+            if (!course.getRowId().isEmpty()) {
+                byRow.putIfAbsent(course.getRowId(), course);
+            }
+        }
+
+        ArrayList<Course> next = new ArrayList<>(parsed.size());
+        boolean changed = previous.size() != parsed.size();
+        for (int i = 0; i < parsed.size(); i++) {
+            Course fresh = parsed.get(i);
+            Course kept = fresh.getRowId().isEmpty() ? null : byRow.remove(fresh.getRowId());
+            if (kept == null) {
+                next.add(fresh);
+                changed = true;
+            } else {
+                boolean moved = i >= previous.size() || previous.get(i) != kept;
+                changed |= kept.updateFrom(fresh) || moved;
+                next.add(kept);
+            }
+        }
+        // Courses left over were dropped
+        SectionCatalog catalog = config.client.getSectionCatalog();
+        if (catalog != null) {
+            for (Course dropped : byRow.values()) {
+                catalog.unenroll(dropped.getSection(), username);
+            }
+        }
+        return changed ? next : previous;
+    }
+
+    /**
+     * Unenrolls this User from the sections of previously parsed courses whose rows are gone
+     *
+     * @param previous Current courses
+     * @param parsed   Freshly parsed courses
+     */
+    private void releaseDropped(List<Course> previous, List<Course> parsed) {
+        SectionCatalog catalog = config.client.getSectionCatalog();
+        if (catalog == null) {
+            return;
+        }
+        Set<String> rowIds = new HashSet<>();
+        if (parsed instanceof LazyCourseList) {
+            rowIds.addAll(((LazyCourseList) parsed).getRowIds());
+        } else {
+            parsed.forEach(course -> rowIds.add(course.getRowId()));
+        }
+        List<Course> materialized = previous instanceof LazyCourseList
+                ? ((LazyCourseList) previous).getParsedCourses() : previous;
+        for (Course course : materialized) {
+            if (course.getRowId().isEmpty() || !rowIds.contains(course.getRowId())) {
+                catalog.unenroll(course.getSection(), username);
+            }
+        }
+    }
+
+    /**
+     * Replaces the config without parsing its document again, for when the courses have not changed
+     *
+     * @param config UserConfig to switch to
+     */
+    public void updateConfig(UserConfig config) {
+        this.config = config;
+        this.username = config.username;
     }
 
     /**
      * Load information from a {@code Document}
      *
      * @param doc {@code Document} to load from
+     * @return Courses parsed from the document
      */
-    private void loadInfoFromDoc(Document doc) {
+    private List<Course> loadInfoFromDoc(Document doc) {
+        PowerschoolMetrics metrics = config.client.getMetrics();
+        ParseEvent event = new ParseEvent();
+        event.begin();
+        long start = System.nanoTime();
+
         Node usernameContainer = doc.getElementById("userName").child(0).childNode(0);
         this.personName = usernameContainer.toString().trim();
 
@@ -100,11 +202,29 @@ public class User {
 
         Element rowSpecification = mainContentContainer.child(0);
         ViewSpecification viewSpecification = new ViewSpecification(rowSpecification);
-        for (Element child : mainContentContainer.children()) {
-            if (child.hasAttr("id")) {
-                courses.add(Course.generateCourseFromElement(child, this, viewSpecification));
+        List<Course> courses;
+        if (config.client.isLazyParsing()) {
+            // Only record the rows, each course is parsed and counted when it is first read
+            ArrayList<Element> rows = new ArrayList<>();
+            for (Element child : mainContentContainer.children()) {
+                if (child.hasAttr("id")) {
+                    rows.add(child);
+                }
             }
+            courses = LazyCourseList.of(rows, this, viewSpecification);
+        } else {
+            courses = new ArrayList<>();
+            for (Element child : mainContentContainer.children()) {
+                if (child.hasAttr("id")) {
+                    courses.add(Course.generateCourseFromElement(child, this, viewSpecification));
+                }
+            }
+            metrics.add(Counter.COURSES_PARSED, courses.size());
         }
+
+        metrics.recordSince(Latency.USER_PARSE, start);
+        event.finish(config.client.getPsInstallURL(), "home", 0, courses.size());
+        return courses;
     }
 
     /**
@@ -130,7 +250,35 @@ public class User {
      * @return New CourseGetter based off of this User's courses
      */
     public CourseGetter newCourseGetter() {
-        return new CourseGetter(courses);
+        return new CourseGetter(getCourseIndex());
+    }
+
+    /**
+     * Returns a search index over this User's courses, built on first use and rebuilt after an update
+     *
+     * @return CourseIndex of this User's courses
+     * @see CourseGetter
+     */
+    public CourseIndex getCourseIndex() {
+        List<Course> current = courses;
+        CourseIndex index = courseIndex;
+        if (index == null || !index.isBuiltFrom(current)) {
+            index = CourseIndex.of(current);
+            courseIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * Fetches the assignments of every one of this User's courses in parallel
+     *
+     * @param fetcher       AssignmentFetcher that bounds how many courses are fetched at once
+     * @param gradingPeriod {@code GradingPeriod} which to get the assignments from
+     * @return Fetch that yields each course as it finishes
+     * @see AssignmentFetcher
+     */
+    public AssignmentFetcher.Fetch fetchAllAssignments(AssignmentFetcher fetcher, GradingPeriod gradingPeriod) {
+        return fetcher.fetch(this, gradingPeriod);
     }
 
     /**
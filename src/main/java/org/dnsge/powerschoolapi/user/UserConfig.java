@@ -28,6 +28,7 @@ import org.dnsge.powerschoolapi.client.DefaultPowerschoolClient;
 import org.dnsge.powerschoolapi.client.PowerschoolClient;
 import org.jsoup.nodes.Document;
 
+import java.time.Instant;
 import java.util.Map;
 
 /**
@@ -41,8 +42,11 @@ public class UserConfig {
 
     final PowerschoolClient client;
     final String username, password;
+    private final String passwordDigest;
     private final Document constructionDocument;
     final Map<String, String> authData;
+    private final long homeFingerprint;
+    private final Instant refreshedAt;
 
     /**
      * Basic Constructor for a new UserConfig
@@ -54,11 +58,64 @@ public class UserConfig {
      * @param authData             Authentication cookies for User
      */
     public UserConfig(PowerschoolClient client, String username, String password, Document constructionDocument, Map<String, String> authData) {
+        this(client, username, password, null, constructionDocument, authData);
+    }
+
+    /**
+     * Constructor for a new UserConfig with a precomputed password digest
+     *
+     * @param client               PowerschoolClient that is used by this config
+     * @param username             User username
+     * @param password             User password
+     * @param passwordDigest       Digest of the password used for legacy logins, may be null
+     * @param constructionDocument JSoup Document to construct course information from
+     * @param authData             Authentication cookies for User
+     */
+    public UserConfig(PowerschoolClient client, String username, String password, String passwordDigest,
+                      Document constructionDocument, Map<String, String> authData) {
+        this(client, username, password, passwordDigest, constructionDocument, authData, 0L);
+    }
+
+    /**
+     * Constructor for a new UserConfig with a fingerprint of the home page's course table
+     *
+     * @param client               PowerschoolClient that is used by this config
+     * @param username             User username
+     * @param password             User password
+     * @param passwordDigest       Digest of the password used for legacy logins, may be null
+     * @param constructionDocument JSoup Document to construct course information from
+     * @param authData             Authentication cookies for User
+     * @param homeFingerprint      Fingerprint of the course table in the construction document, or 0 if unknown
+     */
+    public UserConfig(PowerschoolClient client, String username, String password, String passwordDigest,
+                      Document constructionDocument, Map<String, String> authData, long homeFingerprint) {
+        this(client, username, password, passwordDigest, constructionDocument, authData, homeFingerprint,
+                Instant.now());
+    }
+
+    /**
+     * Constructor for a new UserConfig with the time its home page was received
+     *
+     * @param client               PowerschoolClient that is used by this config
+     * @param username             User username
+     * @param password             User password
+     * @param passwordDigest       Digest of the password used for legacy logins, may be null
+     * @param constructionDocument JSoup Document to construct course information from
+     * @param authData             Authentication cookies for User
+     * @param homeFingerprint      Fingerprint of the course table in the construction document, or 0 if unknown
+     * @param refreshedAt          When the construction document's response was received
+     */
+    public UserConfig(PowerschoolClient client, String username, String password, String passwordDigest,
+                      Document constructionDocument, Map<String, String> authData, long homeFingerprint,
+                      Instant refreshedAt) {
         this.client = client;
         this.username = username;
         this.password = password;
+        this.passwordDigest = passwordDigest;
         this.constructionDocument = constructionDocument;
         this.authData = authData;
+        this.homeFingerprint = homeFingerprint;
+        this.refreshedAt = refreshedAt;
     }
 
     /**
@@ -75,6 +132,27 @@ public class UserConfig {
         return password;
     }
 
+    /**
+     * @return {@code UserConfig} stored password digest for legacy logins, or null if it was not precomputed
+     */
+    public String getPasswordDigest() {
+        return passwordDigest;
+    }
+
+    /**
+     * @return Fingerprint of the course table in the construction document, or 0 if unknown
+     */
+    public long getHomeFingerprint() {
+        return homeFingerprint;
+    }
+
+    /**
+     * @return When the home page of this {@code UserConfig} was received, or when it was created if that wasn't given
+     */
+    public Instant getRefreshedAt() {
+        return refreshedAt;
+    }
+
     /**
      * @return Authentication Cookies for this {@code UserConfig}
      */
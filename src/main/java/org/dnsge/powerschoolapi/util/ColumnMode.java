@@ -28,6 +28,7 @@ import org.jsoup.nodes.Element;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Enum class that refers to the Column that an Element is in
@@ -50,51 +51,44 @@ public enum ColumnMode {
     ABSENCES,
     TARDIES;
 
+    private static final Map<String, ColumnMode> BY_HEADER = Map.ofEntries(
+            Map.entry("exp", EXP),
+            Map.entry("last week", LAST_WEEK),
+            Map.entry("this week", THIS_WEEK),
+            Map.entry("course", COURSE),
+            Map.entry("q1", Q1),
+            Map.entry("q2", Q2),
+            Map.entry("e1", E1),
+            Map.entry("f1", F1),
+            Map.entry("q3", Q3),
+            Map.entry("q4", Q4),
+            Map.entry("e2", E2),
+            Map.entry("absences", ABSENCES),
+            Map.entry("tardies", TARDIES));
+
     /**
      * Gets a specific ColumnMode from a String
      *
      * @param s String to get from
-     * @return Appropriate ColumnMode
+     * @return Appropriate ColumnMode, or null if the header isn't known
      */
     public static ColumnMode fromString(String s) {
-        s = s.toLowerCase();
-
-        switch (s) {
-            case "exp":
-                return EXP;
-            case "last week":
-                return LAST_WEEK;
-            case "this week":
-                return THIS_WEEK;
-            case "course":
-                return COURSE;
-            case "q1":
-                return Q1;
-            case "q2":
-                return Q2;
-            case "e1":
-                return E1;
-            case "f1":
-                return F1;
-            case "q3":
-                return Q3;
-            case "q4":
-                return Q4;
-            case "e2":
-                return E2;
-            case "absences":
-                return ABSENCES;
-            case "tardies":
-                return TARDIES;
-        }
+        return BY_HEADER.get(HeaderDialects.normalize(s));
+    }
 
-        return null;
+    /**
+     * @return Period id of this ColumnMode in {@link HeaderDialects}, or {@link HeaderDialects#UNKNOWN_PERIOD} if
+     * it isn't a grading period
+     */
+    public int periodId() {
+        // The built-in quarter dialect is registered in the same order as the grading period constants
+        return isGradingPeriod() ? ordinal() - Q1.ordinal() : HeaderDialects.UNKNOWN_PERIOD;
     }
 
     /**
      * @return whether the ColumnMode is a Grading Period
      */
-    private boolean isGradingPeriod() {
+    boolean isGradingPeriod() {
         return this == Q1 ||
                 this == Q2 ||
                 this == Q3 ||
@@ -0,0 +1,154 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Daniel Sage
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.dnsge.powerschoolapi.util;
+
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable index of where each {@code ColumnMode} sits in a row, compiled once from a {@code ViewSpecification}
+ * and reused for every row of the table
+ *
+ * @author Daniel Sage
+ * @version 1.0
+ * @see ViewSpecification#getColumnPlan()
+ */
+public final class ColumnPlan {
+
+    private final EnumMap<ColumnMode, Integer> positions = new EnumMap<>(ColumnMode.class);
+    /** Period id of each column, {@link HeaderDialects#UNKNOWN_PERIOD} for columns that don't hold grades */
+    private final int[] periodIdAt;
+    private final int gradingColumnCount;
+
+    /**
+     * Compiles a plan from a header row
+     *
+     * @param columns   ColumnMode of every column, null for unrecognized columns
+     * @param periodIds Period id of every column
+     */
+    ColumnPlan(List<ColumnMode> columns, List<Integer> periodIds) {
+        for (int i = 0; i < columns.size(); i++) {
+            ColumnMode mode = columns.get(i);
+            if (mode != null) {
+                positions.put(mode, i); // The last column with a mode wins
+            }
+        }
+
+        // Likewise, only the last column of each grading period holds its grades
+        Map<Integer, Integer> periodPositions = new HashMap<>();
+        for (int i = 0; i < periodIds.size(); i++) {
+            if (periodIds.get(i) != HeaderDialects.UNKNOWN_PERIOD) {
+                periodPositions.put(periodIds.get(i), i);
+            }
+        }
+
+        periodIdAt = new int[columns.size()];
+        Arrays.fill(periodIdAt, HeaderDialects.UNKNOWN_PERIOD);
+        periodPositions.forEach((periodId, column) -> periodIdAt[column] = periodId);
+        gradingColumnCount = periodPositions.size();
+    }
+
+    /**
+     * Gets the column index of a {@code ColumnMode}
+     *
+     * @param mode ColumnMode to find
+     * @return Column index, or -1 if the mode isn't present
+     */
+    public int indexOf(ColumnMode mode) {
+        Integer position = positions.get(mode);
+        return position == null ? -1 : position;
+    }
+
+    /**
+     * Gets the cell of a row in the column of a {@code ColumnMode}
+     *
+     * @param row  {@code <tr>} element to look in
+     * @param mode ColumnMode of the cell
+     * @return The cell, or null if the mode isn't present or the row is too short
+     */
+    public Element cell(Element row, ColumnMode mode) {
+        return cellAt(row, indexOf(mode));
+    }
+
+    /**
+     * Gets the cell of a row at a column index without copying the row's children
+     *
+     * @param row   {@code <tr>} element to look in
+     * @param index Column index
+     * @return The cell, or null if the index is negative or the row is too short
+     */
+    public static Element cellAt(Element row, int index) {
+        if (index < 0) {
+            return null;
+        }
+        int seen = 0;
+        for (int i = 0; i < row.childNodeSize(); i++) {
+            Node node = row.childNode(i);
+            if (node instanceof Element && seen++ == index) {
+                return (Element) node;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the grading period of a column
+     *
+     * @param index Column index
+     * @return Period id of the column, or {@link HeaderDialects#UNKNOWN_PERIOD} if the column doesn't hold grades
+     */
+    public int periodIdAt(int index) {
+        return index < periodIdAt.length ? periodIdAt[index] : HeaderDialects.UNKNOWN_PERIOD;
+    }
+
+    /**
+     * @return Number of grading period columns
+     */
+    public int gradingColumnCount() {
+        return gradingColumnCount;
+    }
+
+    /**
+     * @return Number of columns in the header row
+     */
+    public int width() {
+        return periodIdAt.length;
+    }
+
+    /**
+     * @return A {@code String} listing the grading period columns
+     */
+    @Override
+    public String toString() {
+        return "ColumnPlan" + positions + " periods=" + Arrays.toString(periodIdAt);
+    }
+
+}
@@ -0,0 +1,283 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Daniel Sage
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.dnsge.powerschoolapi.util;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Executor wrapper that shares a fixed number of running tasks fairly between keys
+ * <p>
+ * Every key gets its own queue. Queues take turns in round-robin order whenever a slot frees up, and no key may have
+ * more than a fixed number of tasks running at once, so one busy key can't starve the others. Keys without queued or
+ * running tasks are forgotten and cost nothing.
+ * <p>
+ * {@link #shutdown()} stops accepting tasks but still runs every queued one. Its future completes once the last
+ * task finished, after which the delegate can be shut down without rejecting anything.
+ *
+ * @param <K> Type of the key that tasks are shared between
+ * @author Daniel Sage
+ * @version 1.0
+ */
+public final class FairShareExecutor<K> {
+
+    private final Executor delegate;
+    private final int globalLimit;
+    private final int perKeyLimit;
+
+    // All guarded by this
+    private final Map<K, Lane> lanes = new HashMap<>();
+    private final ArrayDeque<Lane> ready = new ArrayDeque<>();
+    private int running;
+    private boolean shutdown;
+    private final CompletableFuture<Void> terminated = new CompletableFuture<>();
+
+    /**
+     * Creates a new FairShareExecutor
+     *
+     * @param delegate    Executor that actually runs the tasks
+     * @param globalLimit Maximum number of tasks running at once
+     * @param perKeyLimit Maximum number of tasks running at once for a single key
+     */
+    public FairShareExecutor(Executor delegate, int globalLimit, int perKeyLimit) {
+        if (globalLimit < 1 || perKeyLimit < 1) {
+            throw new IllegalArgumentException("Limits must be positive");
+        }
+        this.delegate = delegate;
+        this.globalLimit = globalLimit;
+        this.perKeyLimit = perKeyLimit;
+    }
+
+    /**
+     * Queues a task under a key
+     *
+     * @param key  Key to share under
+     * @param task Task to run
+     * @param <T>  Result type of the task
+     * @return Future that completes with the result of the task, or with a {@code RejectedExecutionException} if
+     * this executor was shut down
+     */
+    public <T> CompletableFuture<T> submit(K key, Callable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Runnable runnable = () -> {
+            if (future.isDone()) { // Cancelled while queued
+                return;
+            }
+            try {
+                future.complete(task.call());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        };
+
+        synchronized (this) {
+            if (shutdown) {
+                future.completeExceptionally(new RejectedExecutionException("FairShareExecutor was shut down"));
+                return future;
+            }
+            Lane lane = lanes.computeIfAbsent(key, Lane::new);
+            lane.pending.add(new Job(runnable, future));
+            markReady(lane);
+        }
+        dispatch();
+        return future;
+    }
+
+    /**
+     * Starts as many queued tasks as the limits allow
+     * <p>
+     * Tasks the delegate rejects are failed and their slots freed in this loop, so a rejecting delegate fails the
+     * whole backlog without recursing.
+     */
+    private void dispatch() {
+        while (true) {
+            Lane lane;
+            Job next;
+            synchronized (this) {
+                if (running >= globalLimit || ready.isEmpty()) {
+                    return;
+                }
+                lane = ready.poll();
+                lane.queued = false;
+                next = lane.pending.poll();
+                running++;
+                lane.running++;
+                markReady(lane);
+            }
+
+            Lane owner = lane;
+            try {
+                delegate.execute(() -> {
+                    try {
+                        next.runnable.run();
+                    } finally {
+                        release(owner);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                next.future.completeExceptionally(e);
+                freeSlot(owner);
+            }
+        }
+    }
+
+    /**
+     * Frees the slot held by a finished task and starts the next ones
+     *
+     * @param lane Lane of the finished task
+     */
+    private void release(Lane lane) {
+        freeSlot(lane);
+        dispatch();
+    }
+
+    /**
+     * Frees the slot held by a task without starting others
+     *
+     * @param lane Lane of the task
+     */
+    private void freeSlot(Lane lane) {
+        boolean idle;
+        synchronized (this) {
+            running--;
+            lane.running--;
+            if (lane.running == 0 && lane.pending.isEmpty()) {
+                lanes.remove(lane.key, lane);
+            } else {
+                markReady(lane);
+            }
+            idle = shutdown && lanes.isEmpty();
+        }
+        if (idle) {
+            terminated.complete(null);
+        }
+    }
+
+    /**
+     * Stops accepting tasks. Tasks that are already queued still run.
+     *
+     * @return Future that completes once every queued and running task finished
+     */
+    public CompletableFuture<Void> shutdown() {
+        boolean idle;
+        synchronized (this) {
+            shutdown = true;
+            idle = lanes.isEmpty();
+        }
+        if (idle) {
+            terminated.complete(null);
+        }
+        return terminated;
+    }
+
+    /**
+     * @return Whether {@link #shutdown()} was called
+     */
+    public synchronized boolean isShutdown() {
+        return shutdown;
+    }
+
+    /**
+     * Puts a lane at the back of the round-robin queue if it has work and room to run it. Must hold the lock.
+     *
+     * @param lane Lane to check
+     */
+    private void markReady(Lane lane) {
+        if (!lane.queued && !lane.pending.isEmpty() && lane.running < perKeyLimit) {
+            lane.queued = true;
+            ready.add(lane);
+        }
+    }
+
+    /**
+     * @return Number of tasks currently running
+     */
+    public synchronized int getRunning() {
+        return running;
+    }
+
+    /**
+     * @param key Key to check
+     * @return Number of tasks queued but not yet running for a key
+     */
+    public synchronized int getQueued(K key) {
+        Lane lane = lanes.get(key);
+        return lane == null ? 0 : lane.pending.size();
+    }
+
+    /**
+     * @return Number of keys with queued or running tasks
+     */
+    public synchronized int getActiveKeys() {
+        return lanes.size();
+    }
+
+    /**
+     * @return Maximum number of tasks running at once
+     */
+    public int getGlobalLimit() {
+        return globalLimit;
+    }
+
+    /**
+     * @return Maximum number of tasks running at once for a single key
+     */
+    public int getPerKeyLimit() {
+        return perKeyLimit;
+    }
+
+    /**
+     * Queue of tasks for a single key
+     */
+    private final class Lane {
+        private final K key;
+        private final ArrayDeque<Job> pending = new ArrayDeque<>();
+        private int running;
+        private boolean queued;
+
+        private Lane(K key) {
+            this.key = key;
+        }
+    }
+
+    /**
+     * Queued task and the future it completes
+     */
+    private static final class Job {
+        private final Runnable runnable;
+        private final CompletableFuture<?> future;
+
+        private Job(Runnable runnable, CompletableFuture<?> future) {
+            this.runnable = runnable;
+            this.future = future;
+        }
+    }
+
+}
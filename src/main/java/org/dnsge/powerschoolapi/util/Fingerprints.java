@@ -0,0 +1,143 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Daniel Sage
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.dnsge.powerschoolapi.util;
+
+/**
+ * 64-bit FNV-1a fingerprints for change detection
+ * <p>
+ * Values are mixed into a running hash, starting from {@link #start()}. Null values mix in a marker distinct from
+ * any string, so that {@code null} and {@code "null"} have different fingerprints. These hashes are not
+ * cryptographic and are only meant for spotting changed content.
+ *
+ * @author Daniel Sage
+ * @version 1.0
+ */
+public final class Fingerprints {
+
+    private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+    private static final int NULL_MARKER = 0xFF;
+
+    private Fingerprints() {
+    }
+
+    /**
+     * @return Starting value of a fingerprint
+     */
+    public static long start() {
+        return OFFSET_BASIS;
+    }
+
+    /**
+     * @param hash  Running fingerprint
+     * @param value Byte to mix in
+     * @return New fingerprint
+     */
+    public static long mixByte(long hash, int value) {
+        return (hash ^ (value & 0xFF)) * PRIME;
+    }
+
+    /**
+     * @param hash  Running fingerprint
+     * @param value Int to mix in
+     * @return New fingerprint
+     */
+    public static long mix(long hash, int value) {
+        hash = mixByte(hash, value);
+        hash = mixByte(hash, value >>> 8);
+        hash = mixByte(hash, value >>> 16);
+        return mixByte(hash, value >>> 24);
+    }
+
+    /**
+     * @param hash  Running fingerprint
+     * @param value Long to mix in
+     * @return New fingerprint
+     */
+    public static long mix(long hash, long value) {
+        return mix(mix(hash, (int) value), (int) (value >>> 32));
+    }
+
+    /**
+     * @param hash  Running fingerprint
+     * @param value Float to mix in
+     * @return New fingerprint
+     */
+    public static long mix(long hash, float value) {
+        return mix(hash, Float.floatToIntBits(value));
+    }
+
+    /**
+     * @param hash  Running fingerprint
+     * @param value Nullable Integer to mix in
+     * @return New fingerprint
+     */
+    public static long mix(long hash, Integer value) {
+        return value == null ? mixByte(hash, NULL_MARKER) : mix(mixByte(hash, 1), value.intValue());
+    }
+
+    /**
+     * @param hash  Running fingerprint
+     * @param value Nullable Float to mix in
+     * @return New fingerprint
+     */
+    public static long mix(long hash, Float value) {
+        return value == null ? mixByte(hash, NULL_MARKER) : mix(mixByte(hash, 1), value.floatValue());
+    }
+
+    /**
+     * Mixes in the characters of a String followed by its length, so consecutive Strings can't run together
+     *
+     * @param hash  Running fingerprint
+     * @param value Nullable String to mix in
+     * @return New fingerprint
+     */
+    public static long mix(long hash, CharSequence value) {
+        if (value == null) {
+            return mixByte(hash, NULL_MARKER);
+        }
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            hash = mixByte(mixByte(hash, c), c >>> 8);
+        }
+        return mix(hash, length);
+    }
+
+    /**
+     * @param bytes Bytes to fingerprint
+     * @param from  First index, inclusive
+     * @param to    Last index, exclusive
+     * @return Fingerprint of the byte range
+     */
+    public static long of(byte[] bytes, int from, int to) {
+        long hash = OFFSET_BASIS;
+        for (int i = from; i < to; i++) {
+            hash = (hash ^ (bytes[i] & 0xFF)) * PRIME;
+        }
+        return hash;
+    }
+
+}
@@ -0,0 +1,132 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Daniel Sage
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.dnsge.powerschoolapi.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Registry of the grading period headers that can appear on a Powerschool home page
+ * <p>
+ * Every grading period label gets a compact integer period id. The built-in quarter dialect (Q1-Q4, E1, E2, F1)
+ * uses ids 0 to 6, matching the ordinals of {@code GradingPeriod}. Trimester (T1-T3) and semester (S1, S2) labels
+ * are registered by default, and districts can register their own labels with {@link #register(String...)}.
+ * Lookups are case-insensitive and go through a precomputed table that is replaced, never modified, on
+ * registration.
+ *
+ * @author Daniel Sage
+ * @version 1.0
+ */
+public final class HeaderDialects {
+
+    /** Period id returned for headers that aren't grading periods */
+    public static final int UNKNOWN_PERIOD = -1;
+
+    private static final String[] QUARTERS = {"Q1", "Q2", "E1", "F1", "Q3", "Q4", "E2"};
+    private static final String[] TRIMESTERS = {"T1", "T2", "T3"};
+    private static final String[] SEMESTERS = {"S1", "S2"};
+
+    private static volatile Map<String, Integer> idsByLabel = Map.of();
+    private static volatile String[] labelsById = new String[0];
+
+    static {
+        register(QUARTERS);
+        register(TRIMESTERS);
+        register(SEMESTERS);
+    }
+
+    private HeaderDialects() {
+    }
+
+    /**
+     * Registers a set of grading period labels, giving each new label the next free period id
+     *
+     * @param labels Labels as they appear in the header row, matched case-insensitively
+     * @return Period id of each label, in the same order
+     */
+    public static synchronized int[] register(String... labels) {
+        Map<String, Integer> ids = new HashMap<>(idsByLabel);
+        String[] names = labelsById;
+        int[] result = new int[labels.length];
+
+        for (int i = 0; i < labels.length; i++) {
+            String label = labels[i].trim();
+            Integer id = ids.get(normalize(label));
+            if (id == null) {
+                id = names.length;
+                names = Arrays.copyOf(names, id + 1);
+                names[id] = label.toUpperCase(Locale.ROOT);
+                ids.put(normalize(label), id);
+            }
+            result[i] = id;
+        }
+
+        labelsById = names;
+        idsByLabel = Map.copyOf(ids);
+        return result;
+    }
+
+    /**
+     * Gets the period id of a header label
+     *
+     * @param header Header text
+     * @return Period id, or {@link #UNKNOWN_PERIOD} if the header isn't a registered grading period
+     */
+    public static int periodId(String header) {
+        Integer id = idsByLabel.get(normalize(header));
+        return id == null ? UNKNOWN_PERIOD : id;
+    }
+
+    /**
+     * Gets the display name of a period id
+     *
+     * @param periodId Period id
+     * @return Upper case label of the period, or "??" for unknown ids
+     */
+    public static String periodName(int periodId) {
+        String[] names = labelsById;
+        return periodId >= 0 && periodId < names.length ? names[periodId] : "??";
+    }
+
+    /**
+     * @return Number of period ids handed out so far, all ids are below this number
+     */
+    public static int periodCount() {
+        return labelsById.length;
+    }
+
+    /**
+     * Normalizes a label for case-insensitive lookup
+     *
+     * @param label Label to normalize
+     * @return Trimmed, lower case label
+     */
+    static String normalize(String label) {
+        return label.trim().toLowerCase(Locale.ROOT);
+    }
+
+}
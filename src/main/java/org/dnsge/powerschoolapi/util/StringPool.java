@@ -0,0 +1,260 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Daniel Sage
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.dnsge.powerschoolapi.util;
+
+import org.dnsge.powerschoolapi.metrics.Counter;
+import org.dnsge.powerschoolapi.metrics.PowerschoolMetrics;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, concurrent pool that deduplicates frequently repeated Strings
+ * <p>
+ * Category names, letter grades, course names and teacher names repeat across every parsed object. Passing them
+ * through {@link #intern(String)} makes equal values share one instance. The pool is split into independently locked
+ * stripes, and a full stripe evicts one entry that wasn't used since the clock hand last passed it, so memory stays
+ * bounded while the values that keep repeating stay pooled.
+ * <p>
+ * The capacity of the {@link #shared() shared} pool can be set with the {@value #CAPACITY_PROPERTY} system property;
+ * a capacity of 0 turns pooling off.
+ *
+ * @author Daniel Sage
+ * @version 1.0
+ */
+public final class StringPool {
+
+    /** Default maximum number of pooled Strings */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+    /** Longest String that is pooled; longer ones are rarely shared */
+    public static final int MAX_LENGTH = 128;
+    /** System property holding the capacity of the shared pool */
+    public static final String CAPACITY_PROPERTY = "org.dnsge.powerschoolapi.stringPoolCapacity";
+
+    private static final int MAX_STRIPES = 16;
+    private static final StringPool SHARED = new StringPool(Integer.getInteger(CAPACITY_PROPERTY, DEFAULT_CAPACITY));
+
+    private final Stripe[] stripes;
+    private final int capacity;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a StringPool
+     *
+     * @param capacity Maximum number of pooled Strings, or 0 to hand every String back unpooled
+     */
+    public StringPool(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative");
+        }
+        this.capacity = capacity;
+        int stripeCount = Math.min(MAX_STRIPES, Integer.highestOneBit(capacity));
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            // Spread the remainder so the stripe capacities add up to the pool capacity
+            stripes[i] = new Stripe(capacity / stripeCount + (i < capacity % stripeCount ? 1 : 0));
+        }
+    }
+
+    /**
+     * @return The pool shared by the parsing code
+     */
+    public static StringPool shared() {
+        return SHARED;
+    }
+
+    /**
+     * Gets the pooled instance of a String, adding it to the pool if it isn't there yet
+     *
+     * @param value String to deduplicate, may be null
+     * @return Pooled instance equal to the value, or the value itself if it is null, too long, or pooling is off
+     */
+    public String intern(String value) {
+        return intern(value, PowerschoolMetrics.noop());
+    }
+
+    /**
+     * Gets the pooled instance of a String, adding it to the pool if it isn't there yet, and records the lookup as a
+     * {@link Counter#STRING_POOL_HITS hit} or {@link Counter#STRING_POOL_MISSES miss}
+     *
+     * @param value   String to deduplicate, may be null
+     * @param metrics Metrics to record the lookup to
+     * @return Pooled instance equal to the value, or the value itself if it is null, too long, or pooling is off
+     */
+    public String intern(String value, PowerschoolMetrics metrics) {
+        if (value == null || value.length() > MAX_LENGTH || stripes.length == 0) {
+            return value;
+        }
+        int h = value.hashCode();
+        Stripe stripe = stripes[(h ^ (h >>> 16)) & (stripes.length - 1)];
+        String pooled;
+        boolean evicted;
+        synchronized (stripe) {
+            pooled = stripe.get(value);
+            evicted = pooled == null && stripe.add(value);
+        }
+        if (pooled != null) {
+            hits.increment();
+            metrics.increment(Counter.STRING_POOL_HITS);
+            return pooled;
+        }
+        misses.increment();
+        metrics.increment(Counter.STRING_POOL_MISSES);
+        if (evicted) {
+            evictions.increment();
+        }
+        return value;
+    }
+
+    /**
+     * @return Number of lookups that returned an already pooled instance
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return Number of lookups that added a new instance
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return Number of pooled Strings evicted to make room for new ones
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return Fraction of lookups that were hits, or 0 if there were none
+     */
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    /**
+     * @return Number of pooled Strings
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.index.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return Maximum number of pooled Strings
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Empties the pool and resets its statistics
+     */
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.clear();
+            }
+        }
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+    }
+
+    /**
+     * Fixed size part of the pool that evicts with the CLOCK algorithm; guarded by its own monitor
+     */
+    private static final class Stripe {
+
+        private final HashMap<String, Integer> index;
+        private final String[] slots;
+        private final boolean[] referenced;
+        private int used;
+        private int hand;
+
+        private Stripe(int capacity) {
+            this.index = new HashMap<>(Math.min(capacity, 1024) * 2);
+            this.slots = new String[capacity];
+            this.referenced = new boolean[capacity];
+        }
+
+        private String get(String value) {
+            Integer slot = index.get(value);
+            if (slot == null) {
+                return null;
+            }
+            referenced[slot] = true;
+            return slots[slot];
+        }
+
+        /**
+         * Adds a value that isn't pooled yet
+         *
+         * @return true if another value was evicted to make room
+         */
+        private boolean add(String value) {
+            if (used < slots.length) {
+                put(used++, value);
+                return false;
+            }
+            // Give every recently used slot a second chance until one that wasn't is found
+            while (referenced[hand]) {
+                referenced[hand] = false;
+                hand = (hand + 1) % slots.length;
+            }
+            index.remove(slots[hand]);
+            put(hand, value);
+            hand = (hand + 1) % slots.length;
+            return true;
+        }
+
+        private void put(int slot, String value) {
+            slots[slot] = value;
+            referenced[slot] = false;
+            index.put(value, slot);
+        }
+
+        private void clear() {
+            index.clear();
+            Arrays.fill(slots, null);
+            Arrays.fill(referenced, false);
+            used = 0;
+            hand = 0;
+        }
+    }
+
+}
@@ -37,6 +37,8 @@ import java.util.ArrayList;
 public class ViewSpecification {
 
     private ArrayList<ColumnMode> columns = new ArrayList<>();
+    private ArrayList<Integer> periodIds = new ArrayList<>();
+    private final ColumnPlan columnPlan;
 
     /**
      * Basic ViewSpecification Constructor
@@ -47,11 +49,16 @@ public class ViewSpecification {
         for (Element th : element.children()) {
             int colSpan = Integer.parseInt(!th.attr("colspan").equals("") ? th.attr("colspan") : "1");
 
+            String header = th.text();
+            ColumnMode mode = ColumnMode.fromString(header);
+            int periodId = HeaderDialects.periodId(header);
             for (int i = 0; i < colSpan; i++) {
-                columns.add(org.dnsge.powerschoolapi.util.ColumnMode.fromString(th.text()));
+                columns.add(mode);
+                periodIds.add(periodId);
             }
 
         }
+        columnPlan = new ColumnPlan(columns, periodIds);
     }
 
     /**
@@ -65,4 +72,24 @@ public class ViewSpecification {
         return columns.get(colNumb);
     }
 
+    /**
+     * Gets the grading period id at a specific column index
+     *
+     * @param colNumb Column Index
+     * @return Period id from {@link HeaderDialects}, or {@link HeaderDialects#UNKNOWN_PERIOD}
+     */
+    public int getPeriodIdAt(int colNumb) {
+        return periodIds.get(colNumb);
+    }
+
+    /**
+     * Gets the compiled {@code ColumnPlan} of this specification, shared by every row
+     *
+     * @return Desired ColumnPlan
+     * @see ColumnPlan
+     */
+    public ColumnPlan getColumnPlan() {
+        return columnPlan;
+    }
+
 }
@@ -0,0 +1,85 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Daniel Sage
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.dnsge.powerschoolapi;
+
+/**
+ * Builds minimal Powerschool home pages for tests
+ *
+ * @author Daniel Sage
+ * @version 1.0
+ */
+public final class HomePages {
+
+    private HomePages() {
+    }
+
+    /**
+     * Builds a home page row taught by a teacher named after the course
+     *
+     * @param ccid    Enrollment id of the row, also used for its scores links
+     * @param course  Name of the course
+     * @param letters Letter grade of each grading period column
+     * @return {@code <tr>} HTML of the row
+     */
+    public static String row(int ccid, String course, String... letters) {
+        StringBuilder sb = new StringBuilder("<tr id=\"ccid_").append(ccid).append("\"><td>1(A)</td>");
+        for (int i = 0; i < 10; i++) {
+            sb.append("<td>.</td>");
+        }
+        sb.append("<td align=left>").append(course)
+                .append("&nbsp;<br><a href=\"mailto:").append(course.replace(' ', '.')).append("@example.org\">")
+                .append("Email Teacher</a> <a href=\"teacherinfo.html?id=").append(course.hashCode())
+                .append("\" title=\"Details about Smith, John\">Info</a>&nbsp;- Rm: 100</td>");
+        for (String letter : letters) {
+            sb.append("<td><a href=\"scores.html?frn=004").append(ccid)
+                    .append("&begdate=09/01/2019&enddate=11/05/2019&fg=Q&schoolid=7\">")
+                    .append(letter).append("<br>90.0</a></td>");
+        }
+        return sb.append("<td>0</td><td>0</td></tr>").toString();
+    }
+
+    /**
+     * Builds a home page
+     *
+     * @param periods Headers of the grading period columns
+     * @param rows    Rows from {@link #row(int, String, String...)}
+     * @return HTML of the page
+     */
+    public static String page(String[] periods, String... rows) {
+        StringBuilder sb = new StringBuilder("<html><body><div id=\"userName\"><span>Doe, Jane </span></div>")
+                .append("<div id=\"quickLookup\"><table><tbody>")
+                .append("<tr><th rowspan=2>Exp</th><th colspan=5>Last Week</th><th colspan=5>This Week</th>")
+                .append("<th>Course</th>");
+        for (String period : periods) {
+            sb.append("<th>").append(period).append("</th>");
+        }
+        sb.append("<th>Absences</th><th>Tardies</th></tr>");
+        for (String row : rows) {
+            sb.append(row);
+        }
+        return sb.append("</tbody></table></div></body></html>").toString();
+    }
+
+}
@@ -0,0 +1,127 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Daniel Sage
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.dnsge.powerschoolapi.client;
+
+import org.junit.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests for the bound of {@link LoginFailureCache}
+ *
+ * @author Daniel Sage
+ * @version 1.0
+ */
+public class LoginFailureCacheTest {
+
+    @Test
+    public void evictsEntryThatExpiresSoonest() {
+        ManualClock clock = new ManualClock();
+        LoginFailureCache cache = new LoginFailureCache(Duration.ofMinutes(1), Duration.ofHours(1), 3, clock);
+        fail(cache, "a", 3); // Retry after 4 minutes
+        fail(cache, "b", 2); // Retry after 2 minutes
+        fail(cache, "c", 1); // Retry after 1 minute
+        clock.advance(Duration.ofSeconds(30));
+        fail(cache, "d", 2); // Retry after 2.5 minutes
+
+        assertEquals(3, cache.size());
+        assertNull(cache.get("c"));
+        assertNotNull(cache.get("a"));
+        assertNotNull(cache.get("b"));
+        assertNotNull(cache.get("d"));
+    }
+
+    @Test
+    public void evictsExpiredEntryBeforeBackingOffOnes() {
+        ManualClock clock = new ManualClock();
+        LoginFailureCache cache = new LoginFailureCache(Duration.ofMinutes(1), Duration.ofHours(1), 2, clock);
+        fail(cache, "a", 1);
+        fail(cache, "b", 3);
+        clock.advance(Duration.ofMinutes(2));
+        fail(cache, "c", 1);
+
+        assertEquals(2, cache.size());
+        assertNull(cache.get("a"));
+        assertNotNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+    }
+
+    @Test
+    public void staysBoundedWhenFilledFarPastMaximum() {
+        ManualClock clock = new ManualClock();
+        LoginFailureCache cache = new LoginFailureCache(Duration.ofMinutes(1), Duration.ofHours(1), 100, clock);
+        fail(cache, "streak", 10);
+        for (int i = 0; i < 1_000; i++) {
+            clock.advance(Duration.ofSeconds(1));
+            fail(cache, "user" + i, 1);
+            assertEquals(Math.min(i + 2, 100), cache.size());
+        }
+
+        // Backing off the longest, the streak is never the soonest to expire of a sample
+        assertNotNull(cache.get("streak"));
+        assertNotNull(cache.get("user999"));
+    }
+
+    private static void fail(LoginFailureCache cache, String username, int times) {
+        for (int i = 0; i < times; i++) {
+            cache.recordFailure(username, "password");
+        }
+    }
+
+    /**
+     * Clock that only moves when told to
+     */
+    private static final class ManualClock extends Clock {
+        private Instant now = Instant.EPOCH;
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+}
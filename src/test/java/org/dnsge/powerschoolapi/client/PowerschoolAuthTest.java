@@ -0,0 +1,127 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Daniel Sage
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.dnsge.powerschoolapi.client;
+
+import org.junit.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Formatter;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Known-answer tests for the legacy login fields, checked against independently computed vectors and against the
+ * original {@code Formatter}/{@code String.getBytes()} implementation
+ *
+ * @author Daniel Sage
+ * @version 1.0
+ */
+public class PowerschoolAuthTest {
+
+    @Test
+    public void asciiKnownAnswers() {
+        assertEquals("QvdJref54ZW/R183pEyvyw", PowerschoolAuth.getPasswordDigest("Password123"));
+        assertEquals("a7587410058801004e00b1457563c8a2",
+                PowerschoolAuth.getDBPWField("0123456789ABCDEFcontext", "Password123"));
+        assertEquals("8650c07bdfc413157fb5af837034fe85",
+                PowerschoolAuth.getPWField("0123456789ABCDEFcontext", "Password123"));
+
+        assertEquals("KrljkMfb40Od500MmwsXZw", PowerschoolAuth.getPasswordDigest("hunter2"));
+        assertEquals("106693799ac9633c3a39ee159736fc7c", PowerschoolAuth.getDBPWField("1b7f5ad1c0e2", "hunter2"));
+        assertEquals("77e0d9b03ab2e74acb24d216762c23b1", PowerschoolAuth.getPWField("1b7f5ad1c0e2", "hunter2"));
+        assertEquals("77e0d9b03ab2e74acb24d216762c23b1",
+                PowerschoolAuth.getPWFieldFromDigest("1b7f5ad1c0e2", "KrljkMfb40Od500MmwsXZw"));
+    }
+
+    @Test
+    public void nonAsciiKnownAnswers() {
+        // The vectors are UTF-8, the encoding the build runs tests with
+        assumeTrue(Charset.defaultCharset().equals(StandardCharsets.UTF_8));
+
+        assertEquals("OrLBMBt/RpvWY+fkVSkCCg", PowerschoolAuth.getPasswordDigest("pässwörd€"));
+        assertEquals("ee9982b8e08d20796d7ace20b606ebe8",
+                PowerschoolAuth.getDBPWField("ctxKey", "pässwörd€"));
+        assertEquals("5dc65f220bcb7acf8d7e1108986b41f1",
+                PowerschoolAuth.getPWField("ctxKey", "pässwörd€"));
+
+        assertEquals("R6Isu+vH2Nu3PP0/zj+4mQ", PowerschoolAuth.getPasswordDigest("密码Test"));
+        assertEquals("513d57600c7d35562dfdf5b29dec637c", PowerschoolAuth.getDBPWField("ctxKey", "密码Test"));
+        assertEquals("aa7c46a8dc06b304e5e18112dfc05611", PowerschoolAuth.getPWField("ctxKey", "密码Test"));
+    }
+
+    @Test
+    public void matchesOriginalImplementation() throws Exception {
+        Random random = new Random(27);
+        for (int i = 0; i < 500; i++) {
+            String context = randomString(random, 8 + random.nextInt(24));
+            String password = randomString(random, 1 + random.nextInt(32));
+            assertEquals(originalHmacMd5(password.toLowerCase(), context),
+                    PowerschoolAuth.getDBPWField(context, password));
+            assertEquals(originalPwField(context, password), PowerschoolAuth.getPWField(context, password));
+        }
+    }
+
+    private static String randomString(Random random, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            // Mostly ASCII, with Latin-1, BMP and surrogate pair characters mixed in
+            int kind = random.nextInt(10);
+            if (kind < 7) {
+                sb.append((char) (0x21 + random.nextInt(0x5e)));
+            } else if (kind < 8) {
+                sb.append((char) (0xa1 + random.nextInt(0x5e)));
+            } else if (kind < 9) {
+                sb.append((char) (0x4e00 + random.nextInt(0x5000)));
+            } else {
+                sb.appendCodePoint(0x1f600 + random.nextInt(0x40));
+            }
+        }
+        return sb.toString();
+    }
+
+    static String originalHmacMd5(String data, String key) throws Exception {
+        Mac hmac = Mac.getInstance("HmacMD5");
+        hmac.init(new SecretKeySpec(key.getBytes(), "HmacMD5"));
+        Formatter formatter = new Formatter();
+        for (byte b : hmac.doFinal(data.getBytes())) {
+            formatter.format("%02x", b);
+        }
+        return formatter.toString();
+    }
+
+    static String originalPwField(String contextData, String password) throws Exception {
+        byte[] hashedPw = MessageDigest.getInstance("MD5").digest(password.getBytes());
+        String b64Pw = Base64.getEncoder().encodeToString(hashedPw).replace("=", "");
+        return originalHmacMd5(b64Pw, contextData);
+    }
+
+}
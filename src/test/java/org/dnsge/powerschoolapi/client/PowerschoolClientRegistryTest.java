@@ -0,0 +1,51 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Daniel Sage
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.dnsge.powerschoolapi.client;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests for the state a {@link PowerschoolClientRegistry} shares between its clients
+ *
+ * @author Daniel Sage
+ * @version 1.0
+ */
+public class PowerschoolClientRegistryTest {
+
+    @Test
+    public void clientsShareTheSectionCatalog() {
+        try (PowerschoolClientRegistry registry = new PowerschoolClientRegistry(1, 1, null, 100)) {
+            DefaultPowerschoolClient a = registry.getClient("https://a.example.org/");
+            DefaultPowerschoolClient b = registry.getClient("https://b.example.org/");
+            assertSame(registry.getSectionCatalog(), a.getSectionCatalog());
+            assertSame(registry.getSectionCatalog(), b.getSectionCatalog());
+            assertEquals(100, registry.getSectionCatalog().getMaxSections());
+        }
+    }
+
+}
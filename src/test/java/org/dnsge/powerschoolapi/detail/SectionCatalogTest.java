@@ -0,0 +1,119 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Daniel Sage
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.dnsge.powerschoolapi.detail;
+
+import org.dnsge.powerschoolapi.client.DefaultPowerschoolClient;
+import org.dnsge.powerschoolapi.user.User;
+import org.dnsge.powerschoolapi.user.UserConfig;
+import org.jsoup.Jsoup;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+
+import static org.dnsge.powerschoolapi.HomePages.page;
+import static org.dnsge.powerschoolapi.HomePages.row;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link SectionCatalog}
+ *
+ * @author Daniel Sage
+ * @version 1.0
+ */
+public class SectionCatalogTest {
+
+    private static final String[] PERIODS = {"Q1"};
+
+    private final DefaultPowerschoolClient client = new DefaultPowerschoolClient("https://127.0.0.1:9/");
+
+    @Test
+    public void classmatesShareSections() {
+        // Different enrollments of the same class: each student has their own row id and scores frn
+        User alice = user("alice", page(PERIODS, row(101, "Algebra", "A"), row(102, "Biology", "B")));
+        User bob = user("bob", page(PERIODS, row(201, "Algebra", "C")));
+
+        SectionInfo algebra = alice.getCourses().get(0).getSection();
+        assertSame(algebra, bob.getCourses().get(0).getSection());
+        assertEquals(2, client.getSectionCatalog().size());
+        assertEquals(new HashSet<>(Arrays.asList("alice", "bob")),
+                client.getSectionCatalog().getEnrolledUsers(algebra));
+    }
+
+    @Test
+    public void lastUnenrolledUserDropsSection() {
+        User alice = user("alice", page(PERIODS, row(101, "Algebra", "A")));
+        User bob = user("bob", page(PERIODS, row(201, "Algebra", "C")));
+        SectionCatalog catalog = client.getSectionCatalog();
+
+        alice.update(config("alice", page(PERIODS)));
+        assertEquals(1, catalog.size());
+        bob.update(config("bob", page(PERIODS)));
+        assertEquals(0, catalog.size());
+    }
+
+    @Test
+    public void editedSectionGetsNewEntry() {
+        User alice = user("alice", page(PERIODS, row(101, "Algebra", "A")));
+        SectionInfo before = alice.getCourses().get(0).getSection();
+
+        alice.update(config("alice", page(PERIODS, row(101, "Algebra II", "A"))));
+
+        SectionInfo after = alice.getCourses().get(0).getSection();
+        assertNotSame(before, after);
+        assertEquals("Algebra II", after.getCourseName());
+        assertEquals(1, client.getSectionCatalog().size());
+    }
+
+    @Test
+    public void staysBoundedWhenUsersAreDiscarded() {
+        SectionCatalog catalog = new SectionCatalog(16);
+        SectionInfo hot = catalog.resolve(-1, () -> section(-1), "hot");
+        for (int i = 0; i < 1000; i++) {
+            long key = i;
+            catalog.resolve(key, () -> section(key), "user" + i);
+            assertSame(hot, catalog.resolve(-1, () -> section(-1), "hot"));
+        }
+        assertTrue(catalog.size() <= 16);
+        assertTrue(catalog.getEvictions() >= 1000 - 16);
+    }
+
+    private static SectionInfo section(long key) {
+        return new SectionInfo(key, "1(A)", "Course " + key, "John", "Smith", "", "100");
+    }
+
+    private User user(String username, String html) {
+        return new User(config(username, html));
+    }
+
+    private UserConfig config(String username, String html) {
+        return new UserConfig(client, username, "password", Jsoup.parse(html), new HashMap<>());
+    }
+
+}
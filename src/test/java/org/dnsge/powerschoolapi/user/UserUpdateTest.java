@@ -0,0 +1,112 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Daniel Sage
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.dnsge.powerschoolapi.user;
+
+import org.dnsge.powerschoolapi.client.DefaultPowerschoolClient;
+import org.dnsge.powerschoolapi.detail.Course;
+import org.dnsge.powerschoolapi.detail.GradeGroup;
+import org.jsoup.Jsoup;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.List;
+
+import static org.dnsge.powerschoolapi.HomePages.page;
+import static org.dnsge.powerschoolapi.HomePages.row;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests for refreshing a {@link User} from a new home page with {@link User#update(UserConfig)}
+ *
+ * @author Daniel Sage
+ * @version 1.0
+ */
+public class UserUpdateTest {
+
+    private final DefaultPowerschoolClient client = new DefaultPowerschoolClient("https://127.0.0.1:9/");
+
+    @Test
+    public void insertedRowAboveExistingCourse() {
+        User user = user(page(new String[]{"Q1"}, row(1, "Course 1", "A")));
+        Course a = user.getCourses().get(0);
+
+        user.update(config(page(new String[]{"Q1"}, row(2, "Course 2", "B"), row(1, "Course 1", "A"))));
+
+        assertEquals(2, user.getCourses().size());
+        assertEquals("ccid_2", user.getCourses().get(0).getRowId());
+        assertSame(a, user.getCourses().get(1));
+    }
+
+    @Test
+    public void removedAndReorderedRows() {
+        User user = user(page(new String[]{"Q1"},
+                row(1, "Course 1", "A"), row(2, "Course 2", "B"), row(3, "Course 3", "C")));
+        Course a = user.getCourses().get(0);
+        Course c = user.getCourses().get(2);
+
+        user.update(config(page(new String[]{"Q1"}, row(3, "Course 3", "C"), row(1, "Course 1", "A"))));
+
+        assertEquals(2, user.getCourses().size());
+        assertSame(c, user.getCourses().get(0));
+        assertSame(a, user.getCourses().get(1));
+    }
+
+    @Test
+    public void unchangedPageKeepsList() {
+        String html = page(new String[]{"Q1"}, row(1, "Course 1", "A"), row(2, "Course 2", "B"));
+        User user = user(html);
+        List<Course> courses = user.getCourses();
+
+        user.update(config(html));
+
+        assertSame(courses, user.getCourses());
+    }
+
+    @Test
+    public void gradingPeriodColumnInsertedBeforeExistingOne() {
+        User user = user(page(new String[]{"Q2"}, row(1, "Course 1", "A")));
+        Course course = user.getCourses().get(0);
+        GradeGroup q2 = course.getCourseGrades().get(0);
+
+        user.update(config(page(new String[]{"Q1", "Q2"}, row(1, "Course 1", "B", "A"))));
+
+        assertSame(course, user.getCourses().get(0));
+        List<GradeGroup> grades = course.getCourseGrades();
+        assertEquals(2, grades.size());
+        assertNotSame(q2, grades.get(0));
+        assertSame(q2, grades.get(1));
+    }
+
+    private User user(String html) {
+        return new User(config(html));
+    }
+
+    private UserConfig config(String html) {
+        return new UserConfig(client, "student", "password", Jsoup.parse(html), new HashMap<>());
+    }
+
+}
@@ -0,0 +1,128 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Daniel Sage
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.dnsge.powerschoolapi.util;
+
+import org.dnsge.powerschoolapi.detail.Assignment;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the heap retained by the assignments of a cohort of users, parsed from lookup JSON by
+ * {@link Assignment#generateFromJsonObject(JSONObject)}
+ * <p>
+ * Every course's lookup is rendered to text and parsed back, so each user gets fresh String instances just as from a
+ * server response. Run it twice, once as is and once with pooling turned off, and compare the retained heap:
+ * <pre>
+ * MAVEN_OPTS=-Xmx3g mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=org.dnsge.powerschoolapi.util.StringPoolFootprint
+ * MAVEN_OPTS=-Xmx3g mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=org.dnsge.powerschoolapi.util.StringPoolFootprint \
+ *     -Dorg.dnsge.powerschoolapi.stringPoolCapacity=0
+ * </pre>
+ *
+ * @author Daniel Sage
+ * @version 1.0
+ */
+public final class StringPoolFootprint {
+
+    private static final int USERS = 10_000;
+    private static final int COURSES = 7;
+    private static final int ASSIGNMENTS = 20;
+    private static final int CLASS_SIZE = 25;
+
+    private static final String[] CATEGORIES = {"Homework", "Quizzes", "Tests", "Labs", "Projects", "Participation"};
+    private static final String[] LETTERS = {"A", "A-", "B+", "B", "B-", "C+", "C", "D", "F"};
+
+    private StringPoolFootprint() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        long baseline = usedHeap();
+        List<Assignment> assignments = new ArrayList<>(USERS * COURSES * ASSIGNMENTS);
+        for (int u = 0; u < USERS; u++) {
+            for (int c = 0; c < COURSES; c++) {
+                JSONArray lookup = new JSONArray(lookup(u, c).toString());
+                for (Object assignment : lookup) {
+                    assignments.add(Assignment.generateFromJsonObject((JSONObject) assignment));
+                }
+            }
+        }
+        long retained = usedHeap() - baseline;
+
+        StringPool pool = StringPool.shared();
+        System.out.printf("users: %d, assignments: %d%n", USERS, assignments.size());
+        System.out.printf("pool capacity: %d, pooled strings: %d, hit rate %.3f%n",
+                pool.getCapacity(), pool.size(), pool.getHitRate());
+        System.out.printf("retained: %,d bytes%n", retained);
+    }
+
+    /**
+     * Builds the assignment lookup one user gets for one course; classmates share sections, so names and dates
+     * repeat across users
+     */
+    private static JSONArray lookup(int user, int course) {
+        int section = (user / CLASS_SIZE) * COURSES + course;
+        JSONArray lookup = new JSONArray();
+        for (int a = 0; a < ASSIGNMENTS; a++) {
+            String due = String.format("2019-%02d-%02d", 1 + a % 12, 1 + (a * 7 + course) % 28);
+            JSONObject score = new JSONObject()
+                    .put("scorepoints", 8 + (user + a) % 3)
+                    .put("scorepercent", 80 + (user + a) % 20)
+                    .put("scorelettergrade", LETTERS[(user + a) % LETTERS.length])
+                    .put("scoreentrydate", due)
+                    .put("iscollected", true)
+                    .put("islate", (user + a) % 11 == 0)
+                    .put("ismissing", false)
+                    .put("isexempt", false)
+                    .put("isabsent", false)
+                    .put("isincomplete", false);
+            JSONObject category = new JSONObject()
+                    .put("_teachercategory", new JSONObject().put("name", CATEGORIES[(a + course) % CATEGORIES.length]));
+            JSONObject details = new JSONObject()
+                    .put("name", "Section " + section + " assignment " + a)
+                    .put("duedate", due)
+                    .put("totalpointvalue", 10)
+                    .put("_assignmentscores", new JSONArray().put(score))
+                    .put("_assignmentcategoryassociations", new JSONArray().put(category));
+            lookup.put(new JSONObject()
+                    .put("assignmentid", section * ASSIGNMENTS + a)
+                    .put("_assignmentsections", new JSONArray().put(details)));
+        }
+        return lookup;
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 Daniel Sage
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.dnsge.powerschoolapi.util;
+
+import org.dnsge.powerschoolapi.metrics.Counter;
+import org.dnsge.powerschoolapi.metrics.InMemoryMetrics;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests for {@link StringPool}
+ *
+ * @author Daniel Sage
+ * @version 1.0
+ */
+public class StringPoolTest {
+
+    @Test
+    public void sharesEqualInstances() {
+        StringPool pool = new StringPool(8);
+        String first = new String("Homework");
+        assertSame(first, pool.intern(first));
+        assertSame(first, pool.intern(new String("Homework")));
+        assertEquals(1, pool.getHits());
+        assertEquals(1, pool.getMisses());
+    }
+
+    @Test
+    public void staysBoundedAndKeepsRecentlyUsedValues() {
+        StringPool pool = new StringPool(1);
+        for (int i = 0; i < 100; i++) {
+            pool.intern("cold" + i);
+        }
+        assertEquals(1, pool.size());
+        assertEquals(99, pool.getEvictions());
+
+        pool = new StringPool(64);
+        String hot = pool.intern(new String("A"));
+        for (int i = 0; i < 10_000; i++) {
+            assertSame(hot, pool.intern(new String("A")));
+            pool.intern("cold" + i);
+        }
+        assertEquals(64, pool.size());
+    }
+
+    @Test
+    public void evictedValuesArePooledAgain() {
+        StringPool pool = new StringPool(1);
+        String a = pool.intern(new String("A"));
+        pool.intern("B");
+        String again = pool.intern(new String("A"));
+        assertNotSame(a, again);
+        assertSame(again, pool.intern(new String("A")));
+    }
+
+    @Test
+    public void reportsLookupsToMetrics() {
+        StringPool pool = new StringPool(8);
+        InMemoryMetrics metrics = new InMemoryMetrics();
+        pool.intern("A", metrics);
+        pool.intern("A", metrics);
+        pool.intern("A", metrics);
+        pool.intern(null, metrics);
+        assertEquals(2, metrics.getCount(Counter.STRING_POOL_HITS));
+        assertEquals(1, metrics.getCount(Counter.STRING_POOL_MISSES));
+    }
+
+    @Test
+    public void zeroCapacityHandsValuesBack() {
+        StringPool pool = new StringPool(0);
+        String a = new String("A");
+        assertSame(a, pool.intern(a));
+        assertNotSame(a, pool.intern(new String("A")));
+        assertEquals(0, pool.size());
+    }
+
+}